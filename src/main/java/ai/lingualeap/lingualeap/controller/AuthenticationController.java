@@ -6,11 +6,14 @@ import ai.lingualeap.lingualeap.model.response.AuthResponse;
 import ai.lingualeap.lingualeap.service.AuthenticationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -30,7 +33,16 @@ public class AuthenticationController {
 
     @PostMapping("/login")
     @Operation(summary = "Authenticate a user")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authenticationService.login(request));
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest servletRequest) {
+        return ResponseEntity.ok(authenticationService.login(request, servletRequest.getRemoteAddr()));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke the bearer token of the request")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        authenticationService.logout(authorization);
+        return ResponseEntity.noContent().build();
     }
 }
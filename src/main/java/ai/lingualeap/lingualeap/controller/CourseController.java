@@ -0,0 +1,39 @@
+package ai.lingualeap.lingualeap.controller;
+
+import ai.lingualeap.lingualeap.model.response.LearningPathResponse;
+import ai.lingualeap.lingualeap.service.CourseService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/courses")
+@RequiredArgsConstructor
+@Tag(name = "Course Management", description = "Endpoints for browsing courses")
+public class CourseController {
+
+    private final CourseService courseService;
+
+    @Operation(summary = "Get the prerequisite-ordered learning path of a course")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Learning path retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Course not found")
+    })
+    @GetMapping("/{id}/learning-path")
+    public ResponseEntity<LearningPathResponse> getLearningPath(
+            @Parameter(description = "Course ID") @PathVariable Long id
+    ) {
+        log.debug("REST request to get learning path for course: {}", id);
+        return ResponseEntity.ok(courseService.getLearningPath(id));
+    }
+}
@@ -1,12 +1,23 @@
 package ai.lingualeap.lingualeap.controller;
 
+import ai.lingualeap.lingualeap.model.enums.LessonField;
 import ai.lingualeap.lingualeap.model.enums.LessonStatus;
 import ai.lingualeap.lingualeap.model.enums.LessonType;
 import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.PrerequisiteView;
 import ai.lingualeap.lingualeap.model.request.LessonCreateRequest;
+import ai.lingualeap.lingualeap.model.request.LessonMoveRequest;
 import ai.lingualeap.lingualeap.model.request.LessonUpdateRequest;
+import ai.lingualeap.lingualeap.model.response.CursorPage;
+import ai.lingualeap.lingualeap.model.response.LessonAvailabilityResponse;
+import ai.lingualeap.lingualeap.model.response.LessonImportResponse;
 import ai.lingualeap.lingualeap.model.response.LessonResponse;
+import ai.lingualeap.lingualeap.model.response.LessonSearchResultResponse;
+import ai.lingualeap.lingualeap.model.response.LessonSummaryResponse;
+import ai.lingualeap.lingualeap.service.LessonImportService;
+import ai.lingualeap.lingualeap.service.LessonSearchService;
 import ai.lingualeap.lingualeap.service.LessonService;
+import ai.lingualeap.lingualeap.service.cache.ModuleSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -17,8 +28,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -28,12 +43,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @RestController
@@ -42,7 +61,15 @@ import java.util.Map;
 @Tag(name = "Lesson Management", description = "Endpoints for managing lessons")
 public class LessonController {
 
+    private static final String FIELDS_DESCRIPTION = "Heavy fields to include: description, theoryContent, " +
+            "aiPromptTemplate, module, exercises, prerequisites, learningObjectives";
+    // Clients may store responses but must revalidate them with If-None-Match before reuse
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final String GZIP = "gzip";
+
     private final LessonService lessonService;
+    private final LessonImportService lessonImportService;
+    private final LessonSearchService lessonSearchService;
 
     @Operation(summary = "Create a new lesson")
     @ApiResponses({
@@ -59,6 +86,21 @@ public class LessonController {
         return new ResponseEntity<>(lessonService.createLesson(request), HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Bulk import lessons from an NDJSON stream",
+            description = "Each line is one lesson record. Prerequisites may reference existing lesson IDs " +
+                    "or the key of an earlier record in the same stream.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Lessons imported successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid lesson record"),
+            @ApiResponse(responseCode = "404", description = "Module or prerequisite not found")
+    })
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<LessonImportResponse> importLessons(InputStream body) {
+        log.debug("REST request to bulk import lessons");
+        return new ResponseEntity<>(lessonImportService.importLessons(body), HttpStatus.CREATED);
+    }
+
     @Operation(summary = "Update an existing lesson")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Lesson updated successfully"),
@@ -78,14 +120,26 @@ public class LessonController {
     @Operation(summary = "Get lesson by ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Lesson found"),
+            @ApiResponse(responseCode = "304", description = "Lesson unchanged since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid prerequisite depth"),
             @ApiResponse(responseCode = "404", description = "Lesson not found")
     })
     @GetMapping("/{id}")
     public ResponseEntity<LessonResponse> getLesson(
-            @Parameter(description = "Lesson ID") @PathVariable Long id
+            @Parameter(description = "Lesson ID") @PathVariable Long id,
+            @Parameter(description = "Prerequisite rendering: IDS, SUMMARY (direct prerequisites) or TREE")
+            @RequestParam(required = false) PrerequisiteView prerequisites,
+            @Parameter(description = "Maximum prerequisite tree depth, only used with TREE")
+            @RequestParam(required = false) Integer depth,
+            WebRequest webRequest
     ) {
-        log.debug("REST request to get Lesson: {}", id);
-        return ResponseEntity.ok(lessonService.getLessonById(id));
+        log.debug("REST request to get Lesson: {}, prerequisites: {}, depth: {}", id, prerequisites, depth);
+        String eTag = lessonService.getLessonETag(id, prerequisites, depth);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(eTag)
+                .body(lessonService.getLessonById(id, prerequisites, depth));
     }
 
     @Operation(summary = "Search lessons with filters")
@@ -93,7 +147,7 @@ public class LessonController {
             @ApiResponse(responseCode = "200", description = "Search successful")
     })
     @GetMapping
-    public ResponseEntity<Page<LessonResponse>> searchLessons(
+    public ResponseEntity<Page<LessonSummaryResponse>> searchLessons(
             @Parameter(description = "Filter by lesson type")
             @RequestParam(required = false) LessonType type,
 
@@ -106,11 +160,81 @@ public class LessonController {
             @Parameter(description = "Filter by module ID")
             @RequestParam(required = false) Long moduleId,
 
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) List<String> fields,
+
             @Parameter(description = "Pagination parameters")
             @PageableDefault(size = 20) Pageable pageable
     ) {
         log.debug("REST request to search Lessons");
-        return ResponseEntity.ok(lessonService.searchLessons(type, level, status, moduleId, pageable));
+        return ResponseEntity.ok(lessonService.searchLessons(type, level, status, moduleId,
+                LessonField.parse(fields), pageable));
+    }
+
+    @Operation(summary = "Full-text search over lessons",
+            description = "Matches title, description, theory content and learning objectives using the " +
+                    "text search configurations of each course's languages, ranked by relevance.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search successful"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid search text")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<Slice<LessonSearchResultResponse>> fullTextSearch(
+            @Parameter(description = "Search text, web search syntax")
+            @RequestParam String q,
+
+            @Parameter(description = "Filter by lesson type")
+            @RequestParam(required = false) LessonType type,
+
+            @Parameter(description = "Filter by lesson level")
+            @RequestParam(required = false) LessonLevel level,
+
+            @Parameter(description = "Filter by lesson status")
+            @RequestParam(required = false) LessonStatus status,
+
+            @Parameter(description = "Filter by module ID")
+            @RequestParam(required = false) Long moduleId,
+
+            @Parameter(description = "Pagination parameters")
+            @PageableDefault(size = 20) Pageable pageable
+    ) {
+        log.debug("REST request to full-text search Lessons: {}", q);
+        return ResponseEntity.ok(lessonSearchService.search(q, type, level, status, moduleId, pageable));
+    }
+
+    @Operation(summary = "Scroll lessons with a continuation cursor",
+            description = "Keyset pagination ordered by sequence and ID; pass nextCursor from the previous " +
+                    "response to fetch the following slice. No total count is computed.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Slice retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, size or field")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<LessonSummaryResponse>> scrollLessons(
+            @Parameter(description = "Filter by lesson type")
+            @RequestParam(required = false) LessonType type,
+
+            @Parameter(description = "Filter by lesson level")
+            @RequestParam(required = false) LessonLevel level,
+
+            @Parameter(description = "Filter by lesson status")
+            @RequestParam(required = false) LessonStatus status,
+
+            @Parameter(description = "Filter by module ID")
+            @RequestParam(required = false) Long moduleId,
+
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) List<String> fields,
+
+            @Parameter(description = "Continuation cursor from the previous slice")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Slice size")
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        log.debug("REST request to scroll Lessons");
+        return ResponseEntity.ok(lessonService.scrollLessons(type, level, status, moduleId,
+                LessonField.parse(fields), cursor, size));
     }
 
     @Operation(summary = "Delete a lesson")
@@ -144,6 +268,24 @@ public class LessonController {
         return ResponseEntity.ok(lessonService.updateLessonStatus(id, status));
     }
 
+    @Operation(summary = "Move a lesson before or after another lesson of its module",
+            description = "Exactly one of beforeLessonId and afterLessonId must be given. Only the moved lesson " +
+                    "is rewritten unless its module has run out of sequence gaps and is renumbered first.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lesson moved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid anchor lesson"),
+            @ApiResponse(responseCode = "404", description = "Lesson not found")
+    })
+    @PatchMapping("/{id}/position")
+    @PreAuthorize("hasRole('TEACHER') or hasRole('ADMIN')")
+    public ResponseEntity<LessonResponse> moveLesson(
+            @Parameter(description = "Lesson ID") @PathVariable Long id,
+            @RequestBody LessonMoveRequest request
+    ) {
+        log.debug("REST request to move Lesson: {}", id);
+        return ResponseEntity.ok(lessonService.moveLesson(id, request));
+    }
+
     @Operation(summary = "Reorder lessons in a module")
     @ApiResponses({
             @ApiResponse(responseCode = "204", description = "Lessons reordered successfully"),
@@ -162,14 +304,53 @@ public class LessonController {
 
     @Operation(summary = "Get lessons by module")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Lessons retrieved successfully")
+            @ApiResponse(responseCode = "200", description = "Lessons retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Lessons unchanged since the given ETag")
     })
     @GetMapping("/module/{moduleId}")
-    public ResponseEntity<List<LessonResponse>> getLessonsByModule(
-            @Parameter(description = "Module ID") @PathVariable Long moduleId
+    public ResponseEntity<List<LessonSummaryResponse>> getLessonsByModule(
+            @Parameter(description = "Module ID") @PathVariable Long moduleId,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) List<String> fields,
+            WebRequest webRequest
     ) {
         log.debug("REST request to get lessons by module: {}", moduleId);
-        return ResponseEntity.ok(lessonService.getLessonsByModuleId(moduleId));
+        Set<LessonField> lessonFields = LessonField.parse(fields);
+        String eTag = lessonService.getLessonsByModuleETag(moduleId, lessonFields);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(eTag)
+                .body(lessonService.getLessonsByModuleId(moduleId, lessonFields));
+    }
+
+    @Operation(summary = "Get published lessons by module",
+            description = "Served from a pre-serialized snapshot of the module's published lessons, gzip-encoded " +
+                    "when the client accepts it. The snapshot is rebuilt in the background after lesson changes.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Published lessons retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Published lessons unchanged since the given ETag")
+    })
+    @GetMapping(value = "/module/{moduleId}/published", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getPublishedLessonsByModule(
+            @Parameter(description = "Module ID") @PathVariable Long moduleId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest
+    ) {
+        log.debug("REST request to get published lessons by module: {}", moduleId);
+        ModuleSnapshot snapshot = lessonService.getPublishedLessonsSnapshot(moduleId);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        // Each content coding is a distinct representation and needs its own strong validator
+        String eTag = gzip ? snapshot.eTag() + "-" + GZIP : snapshot.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).eTag(eTag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(REVALIDATE).eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING).contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
     }
 
     @Operation(summary = "Add prerequisite to lesson")
@@ -230,4 +411,30 @@ public class LessonController {
         log.debug("REST request to get available lessons for user {} in module {}", userId, moduleId);
         return ResponseEntity.ok(lessonService.getAvailableLessonsForUser(userId, moduleId));
     }
+
+    @Operation(summary = "Get lesson availability for user across a course")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lesson availability retrieved successfully")
+    })
+    @GetMapping("/course/{courseId}/available")
+    public ResponseEntity<List<LessonAvailabilityResponse>> getCourseAvailability(
+            @Parameter(description = "Course ID") @PathVariable Long courseId,
+            @Parameter(description = "User ID") @RequestParam Long userId
+    ) {
+        log.debug("REST request to get lesson availability for user {} in course {}", userId, courseId);
+        return ResponseEntity.ok(lessonService.getLessonAvailabilityForCourse(userId, courseId));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
 }
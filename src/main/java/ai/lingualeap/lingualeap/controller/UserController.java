@@ -1,10 +1,15 @@
 package ai.lingualeap.lingualeap.controller;
 
 
+import ai.lingualeap.lingualeap.model.enums.ExportFormat;
 import ai.lingualeap.lingualeap.model.enums.UserStatus;
+import ai.lingualeap.lingualeap.model.request.UserBulkStatusRequest;
 import ai.lingualeap.lingualeap.model.request.UserCreateRequest;
 import ai.lingualeap.lingualeap.model.request.UserUpdateRequest;
+import ai.lingualeap.lingualeap.model.response.CursorPage;
+import ai.lingualeap.lingualeap.model.response.UserBulkStatusResponse;
 import ai.lingualeap.lingualeap.model.response.UserResponse;
+import ai.lingualeap.lingualeap.service.UserExportService;
 import ai.lingualeap.lingualeap.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,8 +22,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -28,7 +38,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 
 @RestController
@@ -37,7 +50,10 @@ import java.time.LocalDateTime;
 @Tag(name = "User Management", description = "APIs for managing users")
 public class UserController {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final UserService userService;
+    private final UserExportService userExportService;
 
     @Operation(summary = "Create a new user by Admin (protected)",
             description = "Creates a new user with the provided details")
@@ -54,12 +70,18 @@ public class UserController {
     @Operation(summary = "Get user by ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "User found"),
+            @ApiResponse(responseCode = "304", description = "User unchanged since the given ETag"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
     @GetMapping("/{id}")
     public ResponseEntity<UserResponse> getUser(
-            @Parameter(description = "User ID") @PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+            @Parameter(description = "User ID") @PathVariable Long id,
+            WebRequest webRequest) {
+        String eTag = userService.getUserETag(id);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(eTag).body(userService.getUserById(id));
     }
 
     @Operation(summary = "Get user by username")
@@ -98,6 +120,70 @@ public class UserController {
         return ResponseEntity.ok(userService.searchUsers(status, createdAtStart, createdAtEnd, pageable));
     }
 
+    @Operation(summary = "Scroll users with a continuation cursor",
+            description = "Keyset pagination ordered by creation date; pass nextCursor from the previous " +
+                    "response to fetch the following slice. No total count is computed.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Slice retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or size")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<UserResponse>> scrollUsers(
+            @Parameter(description = "Filter by user status")
+            @RequestParam(required = false) UserStatus status,
+
+            @Parameter(description = "Filter by creation date start")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAtStart,
+
+            @Parameter(description = "Filter by creation date end")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAtEnd,
+
+            @Parameter(description = "Continuation cursor from the previous slice")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Slice size")
+            @RequestParam(defaultValue = "20") int size) {
+
+        return ResponseEntity.ok(userService.scrollUsers(status, createdAtStart, createdAtEnd, cursor, size));
+    }
+
+    @Operation(summary = "Export users",
+            description = "Streams every matching user as CSV or newline-delimited JSON, ordered by creation date. " +
+                    "Filters match the user search; the response is written while rows are read.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Filter by user status")
+            @RequestParam(required = false) UserStatus status,
+
+            @Parameter(description = "Filter by creation date start")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAtStart,
+
+            @Parameter(description = "Filter by creation date end")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAtEnd,
+
+            @Parameter(description = "Output format")
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+
+        StreamingResponseBody body = output ->
+                userExportService.exportUsers(status, createdAtStart, createdAtEnd, format, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @Operation(summary = "Update user",
             description = "Update user details by ID")
     @ApiResponses({
@@ -126,6 +212,22 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Update user statuses in bulk",
+            description = "Sets the status of the given user ids, or of every user matching the filter, in one " +
+                    "update, up to 10000 users. Users leaving ACTIVE have their tokens revoked. " +
+                    "Users already in the status and the calling user are not changed or counted")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Statuses updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PatchMapping("/status")
+    public ResponseEntity<UserBulkStatusResponse> updateUserStatuses(
+            @Valid @RequestBody UserBulkStatusRequest request,
+            Principal principal) {
+        return ResponseEntity.ok(userService.updateUserStatuses(request, principal.getName()));
+    }
+
     @Operation(summary = "Deactivate user",
             description = "Deactivate a user by setting status to INACTIVE")
     @ApiResponses({
@@ -139,6 +241,20 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Revoke user tokens",
+            description = "Invalidate every token issued to the user so far, forcing a new login")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Tokens revoked successfully"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{id}/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(
+            @Parameter(description = "User ID") @PathVariable Long id) {
+        userService.revokeTokens(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Check username availability")
     @ApiResponse(responseCode = "200", description = "Check successful")
     @GetMapping("/check-username")
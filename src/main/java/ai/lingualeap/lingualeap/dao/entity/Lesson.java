@@ -13,10 +13,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.Getter;
@@ -29,8 +33,28 @@ import java.util.Set;
 @Entity
 @Getter
 @Setter
-@Table(name = "lessons")
+@NamedEntityGraph(
+        name = Lesson.GRAPH_WITH_MODULE,
+        attributeNodes = @NamedAttributeNode(value = "module", subgraph = "module.course"),
+        subgraphs = @NamedSubgraph(name = "module.course", attributeNodes = @NamedAttributeNode("course"))
+)
+@NamedEntityGraph(
+        name = Lesson.GRAPH_DETAIL,
+        attributeNodes = {
+                @NamedAttributeNode(value = "module", subgraph = "module.course"),
+                @NamedAttributeNode("learningObjectives")
+        },
+        subgraphs = @NamedSubgraph(name = "module.course", attributeNodes = @NamedAttributeNode("course"))
+)
+@Table(name = "lessons", indexes = {
+        @Index(name = "idx_lessons_sequence_id", columnList = "sequence, id"),
+        @Index(name = "idx_lessons_module_sequence_id", columnList = "module_id, sequence, id")
+})
 public class Lesson extends BaseEntity {
+    public static final String GRAPH_WITH_MODULE = "Lesson.withModule";
+    public static final String GRAPH_DETAIL = "Lesson.detail";
+    public static final String SEQUENCE_CONSTRAINT = "uq_lessons_module_sequence";
+
     @Column(nullable = false)
     private String title;
 
@@ -49,6 +73,8 @@ public class Lesson extends BaseEntity {
     @Column(nullable = false)
     private LessonStatus status = LessonStatus.DRAFT;
 
+    // Sparse within a module so a move only rewrites one row; unique per module through the deferrable
+    // SEQUENCE_CONSTRAINT, which a migration adds because JPA cannot declare deferrable constraints
     @Column(nullable = false)
     private Integer sequence;
 
@@ -0,0 +1,23 @@
+package ai.lingualeap.lingualeap.dao.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "lesson_prerequisite_closure", indexes = {
+        @Index(name = "idx_lesson_closure_descendant", columnList = "descendant_id, depth")
+})
+public class LessonPrerequisiteClosure {
+    @EmbeddedId
+    private LessonPrerequisiteClosureId id;
+
+    @Column(nullable = false)
+    private Integer depth;
+}
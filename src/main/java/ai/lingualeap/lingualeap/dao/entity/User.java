@@ -10,6 +10,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
@@ -17,6 +18,7 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -24,7 +26,11 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_users_status_created_at_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_users_updated_at", columnList = "updated_at")
+})
 public class User extends BaseEntity {
 
     @Column(nullable = false, unique = true)
@@ -58,6 +64,10 @@ public class User extends BaseEntity {
     @Column(name = "last_login_at")
     private LocalDateTime lastLoginAt;
 
+    // Tokens issued before this instant are rejected, even when authentication trusts the token's own claims
+    @Column(name = "tokens_not_before")
+    private Instant tokensNotBefore;
+
     @NotBlank
     @Email
     public String getEmail() {
@@ -71,4 +81,8 @@ public class User extends BaseEntity {
     public boolean isBanned() {
         return status == UserStatus.BANNED;
     }
+
+    public void revokeTokens() {
+        tokensNotBefore = Instant.now();
+    }
 }
@@ -1,14 +1,17 @@
 package ai.lingualeap.lingualeap.dao.entity;
 
 import ai.lingualeap.lingualeap.dao.entity.base.BaseEntity;
+import ai.lingualeap.lingualeap.dao.entity.listener.UserProgressEntityListener;
 import ai.lingualeap.lingualeap.model.enums.CompletionStatus;
 import ai.lingualeap.lingualeap.model.vo.Score;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -20,7 +23,10 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
-@Table(name = "user_progress")
+@Table(name = "user_progress", indexes = {
+        @Index(name = "idx_user_progress_user_lesson", columnList = "user_id, lesson_id")
+})
+@EntityListeners(UserProgressEntityListener.class)
 public class UserProgress extends BaseEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
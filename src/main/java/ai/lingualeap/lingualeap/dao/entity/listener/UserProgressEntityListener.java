@@ -0,0 +1,37 @@
+package ai.lingualeap.lingualeap.dao.entity.listener;
+
+import ai.lingualeap.lingualeap.dao.entity.UserProgress;
+import ai.lingualeap.lingualeap.model.enums.CompletionStatus;
+import ai.lingualeap.lingualeap.service.event.UserProgressChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserProgressEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(UserProgress progress) {
+        publish(progress, CompletionStatus.COMPLETED.equals(progress.getStatus()));
+    }
+
+    @PostRemove
+    public void onRemoved(UserProgress progress) {
+        publish(progress, false);
+    }
+
+    private void publish(UserProgress progress, boolean completed) {
+        eventPublisher.publishEvent(new UserProgressChangedEvent(
+                progress.getUser().getId(),
+                progress.getLesson().getId(),
+                completed
+        ));
+    }
+}
@@ -4,13 +4,40 @@ import ai.lingualeap.lingualeap.dao.entity.Course;
 import ai.lingualeap.lingualeap.model.enums.CourseLevel;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecificationExecutor<Course> {
     List<Course> findByTargetLanguageAndSourceLanguage(String targetLanguage, String sourceLanguage);
 
     List<Course> findByLevel(CourseLevel level);
+
+    /**
+     * Digest of the versions of the course, its modules and lessons, and of the prerequisite edges of those
+     * lessons; empty if the course does not exist.
+     */
+    @Query(value = """
+            select md5(concat_ws(':', c.version,
+                   (select string_agg(concat(m.id, '.', m.version), ',' order by m.id)
+                    from modules m
+                    where m.course_id = c.id),
+                   (select string_agg(concat(l.id, '.', l.version), ',' order by l.id)
+                    from lessons l
+                    join modules m on m.id = l.module_id
+                    where m.course_id = c.id),
+                   (select concat(count(*), '.',
+                                  coalesce(sum(hashtextextended(lp.lesson_id || ':' || lp.prerequisite_id, 0)), 0))
+                    from lesson_prerequisites lp
+                    join lessons l on l.id = lp.lesson_id
+                    join modules m on m.id = l.module_id
+                    where m.course_id = c.id)))
+            from courses c
+            where c.id = :courseId
+            """, nativeQuery = true)
+    Optional<String> findLearningPathVersion(@Param("courseId") Long courseId);
 }
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +13,8 @@ import java.util.Optional;
 public interface ExerciseRepository extends JpaRepository<Exercise, Long>, JpaSpecificationExecutor<Exercise> {
     List<Exercise> findByLessonIdOrderBySequenceAsc(Long lessonId);
 
+    List<Exercise> findByLessonIdInOrderBySequenceAsc(Collection<Long> lessonIds);
+
     boolean existsByLessonIdAndSequence(Long lessonId, Integer sequence);
 
     Optional<Exercise> findByLessonIdAndSequence(Long lessonId, Integer sequence);
@@ -0,0 +1,130 @@
+package ai.lingualeap.lingualeap.dao.repository;
+
+import ai.lingualeap.lingualeap.dao.entity.LessonPrerequisiteClosure;
+import ai.lingualeap.lingualeap.dao.entity.LessonPrerequisiteClosureId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LessonPrerequisiteClosureRepository
+        extends JpaRepository<LessonPrerequisiteClosure, LessonPrerequisiteClosureId> {
+
+    @Query(value = "select 1 from pg_advisory_xact_lock(hashtext('lesson_prerequisite_closure'))",
+            nativeQuery = true)
+    int lockEdgeWrites();
+
+    @Query(value = """
+            select exists (
+                select 1 from lesson_prerequisite_closure
+                where ancestor_id = :ancestorId and descendant_id = :descendantId
+            )
+            """, nativeQuery = true)
+    boolean existsPath(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+
+    @Query(value = """
+            select exists (
+                select 1 from lesson_prerequisite_closure
+                where ancestor_id = :lessonId and depth > 0
+            )
+            """, nativeQuery = true)
+    boolean existsDescendant(@Param("lessonId") Long lessonId);
+
+    @Query(value = """
+            select ancestor_id from lesson_prerequisite_closure
+            where descendant_id = :lessonId and depth > 0
+            order by depth, ancestor_id
+            """, nativeQuery = true)
+    List<Long> findAncestorIds(@Param("lessonId") Long lessonId);
+
+    @Query(value = """
+            select descendant_id from lesson_prerequisite_closure
+            where ancestor_id = :lessonId
+            """, nativeQuery = true)
+    List<Long> findDescendantIdsIncludingSelf(@Param("lessonId") Long lessonId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into lesson_prerequisite_closure (ancestor_id, descendant_id, depth)
+            values (:lessonId, :lessonId, 0)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertSelf(@Param("lessonId") Long lessonId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into lesson_prerequisite_closure (ancestor_id, descendant_id, depth)
+            select l.id, l.id, 0 from lessons l where l.id in (:lessonIds)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertSelfRows(@Param("lessonIds") Collection<Long> lessonIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into lesson_prerequisite_closure (ancestor_id, descendant_id, depth)
+            select a.ancestor_id, d.descendant_id, a.depth + d.depth + 1
+            from lesson_prerequisite_closure a
+            cross join lesson_prerequisite_closure d
+            where a.descendant_id = :prerequisiteId
+              and d.ancestor_id = :lessonId
+            on conflict (ancestor_id, descendant_id)
+            do update set depth = least(lesson_prerequisite_closure.depth, excluded.depth)
+            """, nativeQuery = true)
+    int insertPaths(@Param("lessonId") Long lessonId, @Param("prerequisiteId") Long prerequisiteId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            delete from lesson_prerequisite_closure
+            where descendant_id in (:descendantIds) and depth > 0
+            """, nativeQuery = true)
+    int deleteInboundPaths(@Param("descendantIds") Collection<Long> descendantIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into lesson_prerequisite_closure (ancestor_id, descendant_id, depth)
+            with recursive paths (ancestor_id, descendant_id, depth) as (
+                select l.id, l.id, 0 from lessons l where l.id in (:descendantIds)
+                union
+                select lp.prerequisite_id, p.descendant_id, p.depth + 1
+                from paths p
+                join lesson_prerequisites lp on lp.lesson_id = p.ancestor_id
+            )
+            select ancestor_id, descendant_id, min(depth)
+            from paths
+            where depth > 0
+            group by ancestor_id, descendant_id
+            """, nativeQuery = true)
+    int insertInboundPaths(@Param("descendantIds") Collection<Long> descendantIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            delete from lesson_prerequisite_closure
+            where ancestor_id = :lessonId or descendant_id = :lessonId
+            """, nativeQuery = true)
+    int deleteByLessonId(@Param("lessonId") Long lessonId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from lesson_prerequisite_closure", nativeQuery = true)
+    int deleteAllPaths();
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into lesson_prerequisite_closure (ancestor_id, descendant_id, depth)
+            with recursive paths (ancestor_id, descendant_id, depth) as (
+                select l.id, l.id, 0 from lessons l
+                union
+                select lp.prerequisite_id, p.descendant_id, p.depth + 1
+                from paths p
+                join lesson_prerequisites lp on lp.lesson_id = p.ancestor_id
+            )
+            select ancestor_id, descendant_id, min(depth)
+            from paths
+            group by ancestor_id, descendant_id
+            """, nativeQuery = true)
+    int insertAllPaths();
+}
@@ -1,18 +1,266 @@
 package ai.lingualeap.lingualeap.dao.repository;
 
 import ai.lingualeap.lingualeap.dao.entity.Lesson;
+import ai.lingualeap.lingualeap.dao.repository.projection.LessonAvailabilityView;
+import ai.lingualeap.lingualeap.dao.repository.projection.LessonObjectiveView;
+import ai.lingualeap.lingualeap.dao.repository.projection.LessonSummary;
+import ai.lingualeap.lingualeap.dao.repository.projection.LessonTextView;
+import ai.lingualeap.lingualeap.dao.repository.projection.PrerequisiteEdge;
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonStatus;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LessonRepository extends JpaRepository<Lesson, Long>, JpaSpecificationExecutor<Lesson> {
     List<Lesson> findByModuleIdOrderBySequenceAsc(Long moduleId);
-    boolean existsByModuleIdAndSequence(Long moduleId, Integer sequence);
+
+    @EntityGraph(Lesson.GRAPH_WITH_MODULE)
+    List<Lesson> findWithModuleByModuleIdOrderBySequenceAsc(Long moduleId);
+
+    @EntityGraph(Lesson.GRAPH_DETAIL)
+    Optional<Lesson> findDetailById(Long id);
+    List<Lesson> findByModuleIdAndIdIn(Long moduleId, Collection<Long> ids);
     Optional<Lesson> findByModuleIdAndSequence(Long moduleId, Integer sequence);
-    List<Lesson> findByPrerequisitesContaining(Lesson prerequisite);
-}
 
+    @Query(value = """
+            select new ai.lingualeap.lingualeap.dao.repository.projection.LessonSummary(
+                   l.id, l.title, l.type, l.level, l.status, l.sequence, l.minRequiredScore,
+                   l.recommendedDuration, l.hasAiInteraction, l.module.id, l.createdAt, l.updatedAt)
+            from Lesson l
+            where (:type is null or l.type = :type)
+              and (:level is null or l.level = :level)
+              and (:status is null or l.status = :status)
+              and (:moduleId is null or l.module.id = :moduleId)
+            """, countQuery = """
+            select count(l)
+            from Lesson l
+            where (:type is null or l.type = :type)
+              and (:level is null or l.level = :level)
+              and (:status is null or l.status = :status)
+              and (:moduleId is null or l.module.id = :moduleId)
+            """)
+    Page<LessonSummary> searchSummaries(@Param("type") LessonType type,
+                                        @Param("level") LessonLevel level,
+                                        @Param("status") LessonStatus status,
+                                        @Param("moduleId") Long moduleId,
+                                        Pageable pageable);
+
+    @Query("""
+            select new ai.lingualeap.lingualeap.dao.repository.projection.LessonSummary(
+                   l.id, l.title, l.type, l.level, l.status, l.sequence, l.minRequiredScore,
+                   l.recommendedDuration, l.hasAiInteraction, l.module.id, l.createdAt, l.updatedAt)
+            from Lesson l
+            where (:type is null or l.type = :type)
+              and (:level is null or l.level = :level)
+              and (:status is null or l.status = :status)
+              and (:moduleId is null or l.module.id = :moduleId)
+              and (:afterId is null or (l.sequence, l.id) > (:afterSequence, :afterId))
+            order by l.sequence, l.id
+            """)
+    List<LessonSummary> findSummariesAfter(@Param("type") LessonType type,
+                                           @Param("level") LessonLevel level,
+                                           @Param("status") LessonStatus status,
+                                           @Param("moduleId") Long moduleId,
+                                           @Param("afterSequence") Integer afterSequence,
+                                           @Param("afterId") Long afterId,
+                                           Limit limit);
+
+    @Query("""
+            select new ai.lingualeap.lingualeap.dao.repository.projection.LessonSummary(
+                   l.id, l.title, l.type, l.level, l.status, l.sequence, l.minRequiredScore,
+                   l.recommendedDuration, l.hasAiInteraction, l.module.id, l.createdAt, l.updatedAt)
+            from Lesson l
+            where l.module.id = :moduleId
+            order by l.sequence
+            """)
+    List<LessonSummary> findSummariesByModuleId(@Param("moduleId") Long moduleId);
+
+    @Query("""
+            select new ai.lingualeap.lingualeap.dao.repository.projection.LessonSummary(
+                   l.id, l.title, l.type, l.level, l.status, l.sequence, l.minRequiredScore,
+                   l.recommendedDuration, l.hasAiInteraction, l.module.id, l.createdAt, l.updatedAt)
+            from Lesson l
+            where l.module.id = :moduleId
+              and l.status = :status
+            order by l.sequence
+            """)
+    List<LessonSummary> findSummariesByModuleIdAndStatus(@Param("moduleId") Long moduleId,
+                                                         @Param("status") LessonStatus status);
+
+    @Query("""
+            select new ai.lingualeap.lingualeap.dao.repository.projection.LessonSummary(
+                   l.id, l.title, l.type, l.level, l.status, l.sequence, l.minRequiredScore,
+                   l.recommendedDuration, l.hasAiInteraction, l.module.id, l.createdAt, l.updatedAt)
+            from Lesson l
+            where l.id in :ids
+            """)
+    List<LessonSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select l.id as lessonId, l.description as text from Lesson l where l.id in :ids")
+    List<LessonTextView> findDescriptions(@Param("ids") Collection<Long> ids);
+
+    @Query("select l.id as lessonId, l.theoryContent as text from Lesson l where l.id in :ids")
+    List<LessonTextView> findTheoryContents(@Param("ids") Collection<Long> ids);
+
+    @Query("select l.id as lessonId, l.aiPromptTemplate as text from Lesson l where l.id in :ids")
+    List<LessonTextView> findAiPromptTemplates(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new ai.lingualeap.lingualeap.dao.repository.projection.LessonObjectiveView(
+                   l.id, o.objective, o.description, o.requiredScore)
+            from Lesson l
+            join l.learningObjectives o
+            where l.id in :ids
+            """)
+    List<LessonObjectiveView> findObjectives(@Param("ids") Collection<Long> ids);
+
+    @Query(value = """
+            select concat_ws(':', l.version, m.version, c.version,
+                   (select string_agg(concat(e.id, '.', e.version), ',' order by e.id)
+                    from exercises e
+                    where e.lesson_id = l.id))
+            from lessons l
+            join modules m on m.id = l.module_id
+            join courses c on c.id = m.course_id
+            where l.id = :id
+            """, nativeQuery = true)
+    Optional<String> findVersionsById(@Param("id") Long id);
+
+    @Query(value = """
+            select concat_ws(':', m.version, c.version,
+                   (select string_agg(concat(l.id, '.', l.version), ',' order by l.id)
+                    from lessons l
+                    where l.module_id = m.id),
+                   case when :withExercises then
+                       (select string_agg(concat(e.id, '.', e.version), ',' order by e.id)
+                        from exercises e
+                        join lessons l on l.id = e.lesson_id
+                        where l.module_id = m.id)
+                   end)
+            from modules m
+            join courses c on c.id = m.course_id
+            where m.id = :moduleId
+            """, nativeQuery = true)
+    Optional<String> findVersionsByModuleId(@Param("moduleId") Long moduleId,
+                                            @Param("withExercises") boolean withExercises);
+
+    @Query(value = """
+            select string_agg(concat(l.id, '.', l.version), ',' order by l.id)
+            from lessons l
+            where l.id in (:ids)
+            """, nativeQuery = true)
+    String findVersionsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select l.id from Lesson l")
+    List<Long> findAllIds();
+
+    @Query("select l.id from Lesson l where l.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select l.sequence from Lesson l where l.module.id = :moduleId")
+    List<Integer> findSequencesByModuleId(@Param("moduleId") Long moduleId);
+
+    @Query("select l.id from Lesson l where l.module.id = :moduleId")
+    List<Long> findIdsByModuleId(@Param("moduleId") Long moduleId);
+
+    @Query("select max(l.sequence) from Lesson l where l.module.id = :moduleId")
+    Integer findMaxSequenceByModuleId(@Param("moduleId") Long moduleId);
+
+    @Query("select l.sequence from Lesson l where l.id = :id and l.module.id = :moduleId")
+    Optional<Integer> findSequenceByIdAndModuleId(@Param("id") Long id, @Param("moduleId") Long moduleId);
+
+    @Query("""
+            select max(l.sequence) from Lesson l
+            where l.module.id = :moduleId and l.sequence < :sequence and l.id <> :excludedId
+            """)
+    Integer findPreviousSequence(@Param("moduleId") Long moduleId,
+                                 @Param("sequence") Integer sequence,
+                                 @Param("excludedId") Long excludedId);
+
+    @Query("""
+            select min(l.sequence) from Lesson l
+            where l.module.id = :moduleId and l.sequence > :sequence and l.id <> :excludedId
+            """)
+    Integer findNextSequence(@Param("moduleId") Long moduleId,
+                             @Param("sequence") Integer sequence,
+                             @Param("excludedId") Long excludedId);
+
+    /**
+     * Spreads the module's sequences back out to multiples of {@code gap} in one statement, keeping their order.
+     * Relies on the unique constraint being deferrable, which makes it checked once per statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            update lessons l
+               set sequence = r.position * :gap,
+                   version = l.version + 1,
+                   updated_at = now()
+              from (select id, row_number() over (order by sequence, id) as position
+                    from lessons
+                    where module_id = :moduleId) r
+             where l.id = r.id
+            """, nativeQuery = true)
+    int rebalanceSequences(@Param("moduleId") Long moduleId, @Param("gap") int gap);
+
+    @Modifying
+    @Query(value = "set constraints " + Lesson.SEQUENCE_CONSTRAINT + " deferred", nativeQuery = true)
+    void deferSequenceConstraint();
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "set constraints " + Lesson.SEQUENCE_CONSTRAINT + " immediate", nativeQuery = true)
+    void checkSequenceConstraint();
+
+    @Query("select l.id as lessonId, p.id as prerequisiteId from Lesson l join l.prerequisites p")
+    List<PrerequisiteEdge> findAllPrerequisiteEdges();
+
+    /**
+     * Cheap summary of the lesson ids and prerequisite edges; it changes whenever a lesson is added or removed or
+     * an edge changes, whichever node made the change.
+     */
+    @Query(value = """
+            select concat_ws('.',
+                   (select count(*) from lessons),
+                   (select coalesce(sum(id), 0) from lessons),
+                   (select count(*) from lesson_prerequisites),
+                   (select coalesce(sum(hashtextextended(lesson_id || ':' || prerequisite_id, 0)), 0)
+                    from lesson_prerequisites))
+            """, nativeQuery = true)
+    String findGraphFingerprint();
+
+    @Query(value = """
+            select l.id as lessonId,
+                   l.module_id as moduleId,
+                   coalesce(up.status, 'NOT_STARTED') as progressStatus,
+                   not exists (
+                       select 1
+                       from lesson_prerequisites lp
+                       left join user_progress pp
+                              on pp.lesson_id = lp.prerequisite_id
+                             and pp.user_id = :userId
+                             and pp.status = 'COMPLETED'
+                       where lp.lesson_id = l.id
+                         and pp.id is null
+                   ) as available
+            from lessons l
+            join modules m on m.id = l.module_id
+            left join user_progress up on up.lesson_id = l.id and up.user_id = :userId
+            where m.course_id = :courseId
+            order by m.sequence, l.sequence
+            """, nativeQuery = true)
+    List<LessonAvailabilityView> findAvailabilityByCourseIdForUser(@Param("courseId") Long courseId,
+                                                                   @Param("userId") Long userId);
+}
@@ -1,10 +1,14 @@
 package ai.lingualeap.lingualeap.dao.repository;
 
 import ai.lingualeap.lingualeap.dao.entity.Module;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +19,14 @@ public interface ModuleRepository extends JpaRepository<Module, Long>, JpaSpecif
     boolean existsByCourseIdAndSequence(Long courseId, Integer sequence);
 
     Optional<Module> findByCourseIdAndSequence(Long courseId, Integer sequence);
+
+    @EntityGraph(attributePaths = "course")
+    List<Module> findWithCourseByIdIn(Collection<Long> ids);
+
+    /**
+     * Row-locks the modules that exist until the transaction ends, so callers that append after the current max
+     * lesson sequence of a module do not race each other. Lesson inserts into the module are not blocked.
+     */
+    @Query(value = "select id from modules where id in (:ids) order by id for no key update", nativeQuery = true)
+    List<Long> lockExistingIds(@Param("ids") Collection<Long> ids);
 }
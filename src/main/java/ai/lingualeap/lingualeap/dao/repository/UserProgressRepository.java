@@ -4,6 +4,8 @@ import ai.lingualeap.lingualeap.dao.entity.UserProgress;
 import ai.lingualeap.lingualeap.model.enums.CompletionStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,4 +18,7 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
     List<UserProgress> findByUserIdOrderByLastAttemptAtDesc(Long userId);
 
     List<UserProgress> findByLessonIdAndStatus(Long lessonId, CompletionStatus status);
+
+    @Query("select up.lesson.id from UserProgress up where up.user.id = :userId and up.status = :status")
+    List<Long> findLessonIdsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") CompletionStatus status);
 }
@@ -1,11 +1,15 @@
 package ai.lingualeap.lingualeap.dao.repository;
 
 import ai.lingualeap.lingualeap.dao.entity.User;
+import ai.lingualeap.lingualeap.dao.repository.projection.TokenRevocationView;
 import ai.lingualeap.lingualeap.model.enums.UserStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.List;
 
@@ -23,4 +27,17 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     List<User> findByStatus(UserStatus status);
 
     Optional<User> findByUsernameAndStatus(String username, UserStatus status);
+
+    /**
+     * The version plus the last login time, which the batched login flush writes without touching the version.
+     */
+    @Query(value = """
+            select concat(u.version, '.', coalesce(floor(extract(epoch from u.last_login_at) * 1000)::bigint, 0))
+            from users u
+            where u.id = :id
+            """, nativeQuery = true)
+    Optional<String> findVersionTagById(@Param("id") Long id);
+
+    @Query("select u.id as userId, u.tokensNotBefore as notBefore from User u where u.tokensNotBefore > :since")
+    List<TokenRevocationView> findTokenRevocationsSince(@Param("since") Instant since);
 }
@@ -0,0 +1,99 @@
+package ai.lingualeap.lingualeap.dao.repository.jdbc;
+
+import ai.lingualeap.lingualeap.model.enums.LessonStatus;
+import ai.lingualeap.lingualeap.model.request.LessonImportRecord;
+import ai.lingualeap.lingualeap.model.vo.LearningObjective;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class LessonImportJdbcRepository {
+
+    private static final String RESERVE_IDS_SQL =
+            "select nextval(pg_get_serial_sequence('lessons', 'id')) from generate_series(1, ?)";
+
+    private static final String INSERT_LESSON_SQL = """
+            insert into lessons (id, title, description, type, level, status, sequence, min_required_score,
+                                 recommended_duration, theory_content, has_ai_interaction, ai_prompt_template,
+                                 module_id, created_at, updated_at, version)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    private static final int[] INSERT_LESSON_TYPES = {
+            Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.BOOLEAN, Types.VARCHAR,
+            Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP
+    };
+
+    private static final String INSERT_PREREQUISITE_SQL =
+            "insert into lesson_prerequisites (lesson_id, prerequisite_id) values (?, ?)";
+
+    private static final int[] INSERT_PREREQUISITE_TYPES = {Types.BIGINT, Types.BIGINT};
+
+    private static final String INSERT_OBJECTIVE_SQL =
+            "insert into lesson_objectives (lesson_id, objective, description, required_score) values (?, ?, ?, ?)";
+
+    private static final int[] INSERT_OBJECTIVE_TYPES = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.INTEGER};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Long> reserveIds(int count) {
+        return jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, count);
+    }
+
+    public void insertAll(List<LessonImportRow> rows, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> lessons = new ArrayList<>(rows.size());
+        List<Object[]> prerequisites = new ArrayList<>();
+        List<Object[]> objectives = new ArrayList<>();
+
+        for (LessonImportRow row : rows) {
+            LessonImportRecord lesson = row.lesson();
+            lessons.add(new Object[]{
+                    row.id(),
+                    lesson.title(),
+                    lesson.description(),
+                    lesson.type().name(),
+                    lesson.level().name(),
+                    LessonStatus.DRAFT.name(),
+                    row.sequence(),
+                    lesson.minRequiredScore(),
+                    lesson.recommendedDuration(),
+                    lesson.theoryContent(),
+                    Boolean.TRUE.equals(lesson.hasAiInteraction()),
+                    lesson.aiPromptTemplate(),
+                    row.moduleId(),
+                    timestamp,
+                    timestamp
+            });
+            row.prerequisiteIds().forEach(prerequisiteId ->
+                    prerequisites.add(new Object[]{row.id(), prerequisiteId}));
+            if (lesson.learningObjectives() != null) {
+                for (LearningObjective objective : lesson.learningObjectives()) {
+                    objectives.add(new Object[]{
+                            row.id(),
+                            objective.getObjective(),
+                            objective.getDescription(),
+                            objective.getRequiredScore()
+                    });
+                }
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_LESSON_SQL, lessons, INSERT_LESSON_TYPES);
+        if (!prerequisites.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PREREQUISITE_SQL, prerequisites, INSERT_PREREQUISITE_TYPES);
+        }
+        if (!objectives.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_OBJECTIVE_SQL, objectives, INSERT_OBJECTIVE_TYPES);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ai.lingualeap.lingualeap.dao.repository.jdbc;
+
+import ai.lingualeap.lingualeap.model.request.LessonImportRecord;
+
+import java.util.Set;
+
+public record LessonImportRow(
+        Long id,
+        Long moduleId,
+        Integer sequence,
+        LessonImportRecord lesson,
+        Set<Long> prerequisiteIds
+) {
+}
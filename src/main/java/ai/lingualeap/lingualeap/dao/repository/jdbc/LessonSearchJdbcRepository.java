@@ -0,0 +1,115 @@
+package ai.lingualeap.lingualeap.dao.repository.jdbc;
+
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonStatus;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.response.LessonSearchResultResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Full-text queries over {@code lessons.search_vector}, a stored generated column with a GIN index. The column
+ * and the triggers that keep its denormalized inputs current come from the {@code V5__lesson_search} migration.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LessonSearchJdbcRepository {
+
+    private static final String FIND_CONFIGS_SQL = """
+            select lesson_search_config(target_language)::text from courses
+            union
+            select lesson_search_config(source_language)::text from courses
+            """;
+
+    private static final String HEADLINE_OPTIONS = "MaxFragments=2, MaxWords=25, MinWords=8";
+
+    private static final RowMapper<LessonSearchResultResponse> RESULT_MAPPER = (rs, rowNum) ->
+            new LessonSearchResultResponse(
+                    rs.getLong("id"),
+                    rs.getString("title"),
+                    LessonType.valueOf(rs.getString("type")),
+                    LessonLevel.valueOf(rs.getString("level")),
+                    LessonStatus.valueOf(rs.getString("status")),
+                    rs.getInt("sequence"),
+                    rs.getLong("module_id"),
+                    rs.getDouble("rank"),
+                    rs.getString("headline")
+            );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public List<String> findConfigsInUse() {
+        return jdbcTemplate.queryForList(FIND_CONFIGS_SQL, String.class);
+    }
+
+    public List<LessonSearchResultResponse> search(String text,
+                                                   List<String> configs,
+                                                   LessonType type,
+                                                   LessonLevel level,
+                                                   LessonStatus status,
+                                                   Long moduleId,
+                                                   long offset,
+                                                   int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("text", text)
+                .addValue("offset", offset)
+                .addValue("limit", limit)
+                .addValue("headlineOptions", HEADLINE_OPTIONS);
+
+        // One tsquery per configuration in use, OR-ed, so a single GIN probe covers lessons of every language
+        StringBuilder tsquery = new StringBuilder();
+        for (int i = 0; i < configs.size(); i++) {
+            if (i > 0) {
+                tsquery.append(" || ");
+            }
+            tsquery.append("websearch_to_tsquery(cast(:config").append(i).append(" as regconfig), :text)");
+            params.addValue("config" + i, configs.get(i));
+        }
+
+        StringBuilder filters = new StringBuilder();
+        if (type != null) {
+            filters.append(" and l.type = :type");
+            params.addValue("type", type.name());
+        }
+        if (level != null) {
+            filters.append(" and l.level = :level");
+            params.addValue("level", level.name());
+        }
+        if (status != null) {
+            filters.append(" and l.status = :status");
+            params.addValue("status", status.name());
+        }
+        if (moduleId != null) {
+            filters.append(" and l.module_id = :moduleId");
+            params.addValue("moduleId", moduleId);
+        }
+
+        String sql = """
+                with query as (select %s as q),
+                ranked as (
+                    select l.id, l.title, l.type, l.level, l.status, l.sequence, l.module_id,
+                           l.search_source_config,
+                           ts_rank_cd(l.search_vector, query.q, 32) as rank
+                    from lessons l, query
+                    where l.search_vector @@ query.q%s
+                    order by rank desc, l.id
+                    limit :limit offset :offset
+                )
+                select r.id, r.title, r.type, r.level, r.status, r.sequence, r.module_id, r.rank,
+                       ts_headline(r.search_source_config, concat_ws(' ', l.description, l.theory_content),
+                                   query.q, :headlineOptions) as headline
+                from ranked r
+                join lessons l on l.id = r.id, query
+                order by r.rank desc, r.id
+                """.formatted(tsquery, filters);
+
+        return namedParameterJdbcTemplate.query(sql, params, RESULT_MAPPER);
+    }
+}
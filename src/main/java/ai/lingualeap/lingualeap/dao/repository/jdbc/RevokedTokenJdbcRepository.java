@@ -0,0 +1,50 @@
+package ai.lingualeap.lingualeap.dao.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Denylist of individual tokens by their {@code jti}. Rows carry the token's own expiry and are purged once it
+ * passes, since an expired token is rejected anyway.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RevokedTokenJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            insert into revoked_tokens (jti, expires_at)
+            values (?, ?)
+            on conflict (jti) do nothing
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(String jti, Instant expiresAt) {
+        jdbcTemplate.update(INSERT_SQL, jti, Timestamp.from(expiresAt));
+    }
+
+    public boolean isRevoked(String jti) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from revoked_tokens where jti = ? and expires_at > now())",
+                Boolean.class, jti));
+    }
+
+    public List<String> findActiveJtis() {
+        return jdbcTemplate.queryForList("select jti from revoked_tokens where expires_at > now()", String.class);
+    }
+
+    public List<String> findJtisRevokedSince(Instant since) {
+        return jdbcTemplate.queryForList(
+                "select jti from revoked_tokens where revoked_at > ? and expires_at > now()",
+                String.class, Timestamp.from(since));
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update("delete from revoked_tokens where expires_at <= now()");
+    }
+}
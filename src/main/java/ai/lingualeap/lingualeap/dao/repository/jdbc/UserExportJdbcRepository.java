@@ -0,0 +1,71 @@
+package ai.lingualeap.lingualeap.dao.repository.jdbc;
+
+import ai.lingualeap.lingualeap.model.enums.UserStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forward-only, read-only cursor over users for exports. Rows are handed to the callback straight from the
+ * {@link ResultSet}; inside a transaction the PostgreSQL driver keeps only {@value #FETCH_SIZE} of them in memory.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserExportJdbcRepository {
+
+    public static final String[] COLUMNS = {
+            "id", "username", "email", "first_name", "last_name", "status", "roles", "created_at", "last_login_at"
+    };
+
+    private static final int FETCH_SIZE = 2_000;
+
+    private static final String SELECT_SQL = """
+            select u.id, u.username, u.email, u.first_name, u.last_name, u.status,
+                   (select string_agg(r.role, ';' order by r.role) from user_roles r where r.user_id = u.id),
+                   to_char(u.created_at, 'YYYY-MM-DD"T"HH24:MI:SS.US'),
+                   to_char(u.last_login_at, 'YYYY-MM-DD"T"HH24:MI:SS.US')
+            from users u
+            where true
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void forEach(UserStatus status,
+                        LocalDateTime createdAtStart,
+                        LocalDateTime createdAtEnd,
+                        RowCallbackHandler rowHandler) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> arguments = new ArrayList<>(3);
+        if (status != null) {
+            sql.append(" and u.status = ?");
+            arguments.add(status.name());
+        }
+        if (createdAtStart != null) {
+            sql.append(" and u.created_at >= ?");
+            arguments.add(Timestamp.valueOf(createdAtStart));
+        }
+        if (createdAtEnd != null) {
+            sql.append(" and u.created_at <= ?");
+            arguments.add(Timestamp.valueOf(createdAtEnd));
+        }
+        sql.append(" order by u.created_at, u.id");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < arguments.size(); i++) {
+                statement.setObject(i + 1, arguments.get(i));
+            }
+            return statement;
+        }, rowHandler);
+    }
+}
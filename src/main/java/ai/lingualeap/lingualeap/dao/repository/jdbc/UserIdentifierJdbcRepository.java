@@ -0,0 +1,37 @@
+package ai.lingualeap.lingualeap.dao.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.BiConsumer;
+
+/**
+ * Streams usernames and emails without materializing the users table. Run inside a transaction, the PostgreSQL
+ * driver then fetches {@value #FETCH_SIZE} rows at a time instead of the whole result.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserIdentifierJdbcRepository {
+
+    private static final int FETCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void forEachIdentifier(BiConsumer<String, String> usernameAndEmail) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("select username, email from users");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, resultSet -> usernameAndEmail.accept(resultSet.getString(1), resultSet.getString(2)));
+    }
+
+    public void forEachIdentifierChangedSince(LocalDateTime since, BiConsumer<String, String> usernameAndEmail) {
+        jdbcTemplate.query("select username, email from users where updated_at > ?",
+                resultSet -> usernameAndEmail.accept(resultSet.getString(1), resultSet.getString(2)),
+                Timestamp.valueOf(since));
+    }
+}
@@ -0,0 +1,53 @@
+package ai.lingualeap.lingualeap.dao.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes buffered last-login timestamps straight to {@code users}, many rows per statement, without touching the
+ * version: a login must not make a concurrent profile edit fail over a timestamp.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserLoginJdbcRepository {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String UPDATE_PREFIX_SQL = """
+            update users u
+               set last_login_at = v.last_login_at
+              from (values\s""";
+
+    private static final String UPDATE_SUFFIX_SQL = """
+                   ) as v(id, last_login_at)
+             where u.id = v.id
+               and (u.last_login_at is null or u.last_login_at < v.last_login_at)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int updateLastLogins(Map<Long, LocalDateTime> lastLogins) {
+        List<Map.Entry<Long, LocalDateTime>> entries = new ArrayList<>(lastLogins.entrySet());
+        int updated = 0;
+        for (int from = 0; from < entries.size(); from += ROWS_PER_STATEMENT) {
+            List<Map.Entry<Long, LocalDateTime>> chunk =
+                    entries.subList(from, Math.min(from + ROWS_PER_STATEMENT, entries.size()));
+            Object[] arguments = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                arguments[2 * i] = chunk.get(i).getKey();
+                arguments[2 * i + 1] = Timestamp.valueOf(chunk.get(i).getValue());
+            }
+            String rows = String.join(", ", Collections.nCopies(chunk.size(), "(?::bigint, ?::timestamp)"));
+            updated += jdbcTemplate.update(UPDATE_PREFIX_SQL + rows + UPDATE_SUFFIX_SQL, arguments);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,110 @@
+package ai.lingualeap.lingualeap.dao.repository.jdbc;
+
+import ai.lingualeap.lingualeap.model.enums.UserStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Changes the status of many users with one set-based statement instead of loading and flushing each entity.
+ * Users already in the target status are left untouched, so only actual changes bump the version and are
+ * returned. Like a JPQL bulk update this bypasses the persistence context; callers must not hold the affected
+ * users as managed entities.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserStatusJdbcRepository {
+
+    private static final String UPDATE_SQL = """
+            update users
+               set status = ?,
+                   updated_at = ?,
+                   version = version + 1""";
+
+    private static final String REVOKE_TOKENS_SQL = ",\n       tokens_not_before = ?";
+    private static final String EXCLUDE_USERNAME_SQL = " and username <> ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Ids of up to {@code limit} users matching the filter that are not in {@code status} yet, lowest first;
+     * {@code null} criteria are ignored.
+     */
+    public List<Long> findIdsForStatusChange(UserStatus currentStatus,
+                                             LocalDateTime createdAtStart,
+                                             LocalDateTime createdAtEnd,
+                                             UserStatus status,
+                                             String excludedUsername,
+                                             int limit) {
+        StringBuilder sql = new StringBuilder("select id from users where status <> ?");
+        List<Object> arguments = new ArrayList<>(6);
+        arguments.add(status.name());
+        if (excludedUsername != null) {
+            sql.append(EXCLUDE_USERNAME_SQL);
+            arguments.add(excludedUsername);
+        }
+        if (currentStatus != null) {
+            sql.append(" and status = ?");
+            arguments.add(currentStatus.name());
+        }
+        if (createdAtStart != null) {
+            sql.append(" and created_at >= ?");
+            arguments.add(Timestamp.valueOf(createdAtStart));
+        }
+        if (createdAtEnd != null) {
+            sql.append(" and created_at <= ?");
+            arguments.add(Timestamp.valueOf(createdAtEnd));
+        }
+        sql.append(" order by id limit ?");
+        arguments.add(limit);
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, arguments.toArray());
+    }
+
+    /**
+     * @param tokensNotBefore  revocation instant to store for every changed user, or {@code null} to keep tokens
+     * @param excludedUsername user never changed even if listed, typically the one making the change
+     * @return ids of the users whose status changed
+     */
+    public List<Long> updateStatusByIds(Collection<Long> ids,
+                                        UserStatus status,
+                                        LocalDateTime updatedAt,
+                                        Instant tokensNotBefore,
+                                        String excludedUsername) {
+        StringBuilder sql = new StringBuilder(UPDATE_SQL);
+        List<Object> arguments = new ArrayList<>(6);
+        arguments.add(status.name());
+        arguments.add(Timestamp.valueOf(updatedAt));
+        if (tokensNotBefore != null) {
+            sql.append(REVOKE_TOKENS_SQL);
+            arguments.add(Timestamp.from(tokensNotBefore));
+        }
+        sql.append("\n where id = any(?) and status <> ?");
+        arguments.add(ids.toArray(new Long[0]));
+        arguments.add(status.name());
+        if (excludedUsername != null) {
+            sql.append(EXCLUDE_USERNAME_SQL);
+            arguments.add(excludedUsername);
+        }
+        sql.append("\nreturning id");
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            for (int i = 0; i < arguments.size(); i++) {
+                Object argument = arguments.get(i);
+                if (argument instanceof Long[] array) {
+                    statement.setArray(i + 1, connection.createArrayOf("bigint", array));
+                } else {
+                    statement.setObject(i + 1, argument);
+                }
+            }
+            return statement;
+        }, (resultSet, rowNum) -> resultSet.getLong(1));
+    }
+}
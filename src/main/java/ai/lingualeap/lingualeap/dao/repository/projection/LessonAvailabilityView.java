@@ -0,0 +1,11 @@
+package ai.lingualeap.lingualeap.dao.repository.projection;
+
+public interface LessonAvailabilityView {
+    Long getLessonId();
+
+    Long getModuleId();
+
+    String getProgressStatus();
+
+    Boolean getAvailable();
+}
@@ -0,0 +1,9 @@
+package ai.lingualeap.lingualeap.dao.repository.projection;
+
+public record LessonObjectiveView(
+        Long lessonId,
+        String objective,
+        String description,
+        Integer requiredScore
+) {
+}
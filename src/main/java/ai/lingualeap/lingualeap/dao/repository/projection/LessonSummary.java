@@ -0,0 +1,23 @@
+package ai.lingualeap.lingualeap.dao.repository.projection;
+
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonStatus;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+
+import java.time.LocalDateTime;
+
+public record LessonSummary(
+        Long id,
+        String title,
+        LessonType type,
+        LessonLevel level,
+        LessonStatus status,
+        Integer sequence,
+        Integer minRequiredScore,
+        Integer recommendedDuration,
+        Boolean hasAiInteraction,
+        Long moduleId,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,7 @@
+package ai.lingualeap.lingualeap.dao.repository.projection;
+
+public interface LessonTextView {
+    Long getLessonId();
+
+    String getText();
+}
@@ -0,0 +1,7 @@
+package ai.lingualeap.lingualeap.dao.repository.projection;
+
+public interface PrerequisiteEdge {
+    Long getLessonId();
+
+    Long getPrerequisiteId();
+}
@@ -0,0 +1,9 @@
+package ai.lingualeap.lingualeap.dao.repository.projection;
+
+import java.time.Instant;
+
+public interface TokenRevocationView {
+    Long getUserId();
+
+    Instant getNotBefore();
+}
@@ -0,0 +1,49 @@
+package ai.lingualeap.lingualeap.model.enums;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum LessonField {
+    DESCRIPTION("description"),
+    THEORY_CONTENT("theoryContent"),
+    AI_PROMPT_TEMPLATE("aiPromptTemplate"),
+    MODULE("module"),
+    EXERCISES("exercises"),
+    PREREQUISITES("prerequisites"),
+    LEARNING_OBJECTIVES("learningObjectives");
+
+    private final String paramName;
+
+    LessonField(String paramName) {
+        this.paramName = paramName;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    public static Set<LessonField> parse(Collection<String> names) {
+        Set<LessonField> fields = EnumSet.noneOf(LessonField.class);
+        if (names == null) {
+            return fields;
+        }
+        for (String name : names) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            fields.add(fromParamName(trimmed));
+        }
+        return fields;
+    }
+
+    private static LessonField fromParamName(String name) {
+        for (LessonField field : values()) {
+            if (field.paramName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown lesson field: " + name);
+    }
+}
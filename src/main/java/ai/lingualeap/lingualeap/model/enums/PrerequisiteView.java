@@ -0,0 +1,7 @@
+package ai.lingualeap.lingualeap.model.enums;
+
+public enum PrerequisiteView {
+    IDS,
+    SUMMARY,
+    TREE
+}
@@ -0,0 +1,26 @@
+package ai.lingualeap.lingualeap.model.request;
+
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.vo.LearningObjective;
+
+import java.util.Set;
+
+public record LessonImportRecord(
+        String key,
+        String title,
+        String description,
+        LessonType type,
+        LessonLevel level,
+        Long moduleId,
+        Integer sequence,
+        Integer minRequiredScore,
+        Integer recommendedDuration,
+        String theoryContent,
+        Boolean hasAiInteraction,
+        String aiPromptTemplate,
+        Set<Long> prerequisiteIds,
+        Set<String> prerequisiteKeys,
+        Set<LearningObjective> learningObjectives
+) {
+}
@@ -0,0 +1,6 @@
+package ai.lingualeap.lingualeap.model.request;
+
+public record LessonMoveRequest(
+        Long beforeLessonId,
+        Long afterLessonId
+) {}
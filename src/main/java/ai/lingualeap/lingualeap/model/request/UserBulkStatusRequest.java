@@ -0,0 +1,24 @@
+package ai.lingualeap.lingualeap.model.request;
+
+import ai.lingualeap.lingualeap.model.enums.UserStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Either explicit {@code ids}, or a filter of {@code currentStatus} and creation range as in the user search.
+ */
+public record UserBulkStatusRequest(
+        @NotNull(message = "Status is required")
+        UserStatus status,
+
+        @Size(max = 10_000, message = "At most 10000 ids can be updated at once")
+        List<Long> ids,
+
+        UserStatus currentStatus,
+        LocalDateTime createdAtStart,
+        LocalDateTime createdAtEnd
+) {
+}
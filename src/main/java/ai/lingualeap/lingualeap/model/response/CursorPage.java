@@ -0,0 +1,11 @@
+package ai.lingualeap.lingualeap.model.response;
+
+import java.util.List;
+
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {
+}
@@ -0,0 +1,18 @@
+package ai.lingualeap.lingualeap.model.response;
+
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+
+import java.util.List;
+
+public record LearningPathItemResponse(
+        Long lessonId,
+        Long moduleId,
+        Integer moduleSequence,
+        Integer sequence,
+        String title,
+        LessonType type,
+        LessonLevel level,
+        List<Long> prerequisiteIds
+) {
+}
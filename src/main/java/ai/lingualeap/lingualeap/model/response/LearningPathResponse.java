@@ -0,0 +1,9 @@
+package ai.lingualeap.lingualeap.model.response;
+
+import java.util.List;
+
+public record LearningPathResponse(
+        Long courseId,
+        List<LearningPathItemResponse> lessons
+) {
+}
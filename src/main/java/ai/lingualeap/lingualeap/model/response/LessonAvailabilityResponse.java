@@ -0,0 +1,11 @@
+package ai.lingualeap.lingualeap.model.response;
+
+import ai.lingualeap.lingualeap.model.enums.CompletionStatus;
+
+public record LessonAvailabilityResponse(
+        Long lessonId,
+        Long moduleId,
+        CompletionStatus progressStatus,
+        boolean available
+) {
+}
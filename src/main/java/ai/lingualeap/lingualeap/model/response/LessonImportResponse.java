@@ -0,0 +1,8 @@
+package ai.lingualeap.lingualeap.model.response;
+
+public record LessonImportResponse(
+        int imported,
+        long elapsedMillis,
+        double lessonsPerSecond
+) {
+}
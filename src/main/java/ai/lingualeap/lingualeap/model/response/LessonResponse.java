@@ -4,6 +4,7 @@ import ai.lingualeap.lingualeap.model.enums.LessonLevel;
 import ai.lingualeap.lingualeap.model.enums.LessonStatus;
 import ai.lingualeap.lingualeap.model.enums.LessonType;
 import ai.lingualeap.lingualeap.model.vo.LearningObjective;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,9 +25,17 @@ public record LessonResponse(
         String aiPromptTemplate,
         ModuleResponse module,
         List<ExerciseResponse> exercises,
-        Set<LessonResponse> prerequisites,
+        List<Long> prerequisiteIds,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        List<PrerequisiteResponse> prerequisites,
         Set<LearningObjective> learningObjectives,
         LocalDateTime createdAt,
         LocalDateTime updatedAt
-) {}
+) {
+    public LessonResponse withPrerequisites(List<Long> ids, List<PrerequisiteResponse> tree) {
+        return new LessonResponse(id, title, description, type, level, status, sequence, minRequiredScore,
+                recommendedDuration, theoryContent, hasAiInteraction, aiPromptTemplate, module, exercises,
+                ids, tree, learningObjectives, createdAt, updatedAt);
+    }
+}
 
@@ -0,0 +1,18 @@
+package ai.lingualeap.lingualeap.model.response;
+
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonStatus;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+
+public record LessonSearchResultResponse(
+        Long id,
+        String title,
+        LessonType type,
+        LessonLevel level,
+        LessonStatus status,
+        Integer sequence,
+        Long moduleId,
+        double rank,
+        String headline
+) {
+}
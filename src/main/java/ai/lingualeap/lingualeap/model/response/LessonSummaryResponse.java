@@ -0,0 +1,34 @@
+package ai.lingualeap.lingualeap.model.response;
+
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonStatus;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.vo.LearningObjective;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LessonSummaryResponse(
+        Long id,
+        String title,
+        LessonType type,
+        LessonLevel level,
+        LessonStatus status,
+        Integer sequence,
+        Integer minRequiredScore,
+        Integer recommendedDuration,
+        Boolean hasAiInteraction,
+        Long moduleId,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String description,
+        String theoryContent,
+        String aiPromptTemplate,
+        ModuleResponse module,
+        List<ExerciseResponse> exercises,
+        List<Long> prerequisiteIds,
+        Set<LearningObjective> learningObjectives
+) {}
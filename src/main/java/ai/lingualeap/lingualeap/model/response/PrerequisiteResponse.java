@@ -0,0 +1,20 @@
+package ai.lingualeap.lingualeap.model.response;
+
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonStatus;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public record PrerequisiteResponse(
+        Long id,
+        String title,
+        LessonType type,
+        LessonLevel level,
+        LessonStatus status,
+        Long moduleId,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        List<PrerequisiteResponse> prerequisites
+) {
+}
@@ -0,0 +1,9 @@
+package ai.lingualeap.lingualeap.model.response;
+
+import ai.lingualeap.lingualeap.model.enums.UserStatus;
+
+public record UserBulkStatusResponse(
+        UserStatus status,
+        int updated
+) {
+}
@@ -1,15 +1,21 @@
 package ai.lingualeap.lingualeap.security;
 
+import ai.lingualeap.lingualeap.dao.entity.User;
 import ai.lingualeap.lingualeap.dao.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final String USER_NOT_FOUND_MESSAGE = "User not found: ";
 
     private final UserRepository userRepository;
 
@@ -17,6 +23,16 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByUsername(username)
                 .map(SecurityUser::new)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+                .orElseThrow(() -> new UsernameNotFoundException(USER_NOT_FOUND_MESSAGE + username));
+    }
+
+    // Logins run outside a transaction; the rehash commits on its own whatever the caller does
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findById(((SecurityUser) userDetails).getUser().getId())
+                .orElseThrow(() -> new UsernameNotFoundException(USER_NOT_FOUND_MESSAGE + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        return new SecurityUser(user);
     }
 }
@@ -4,7 +4,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,13 +17,30 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final TokenDenylist tokenDenylist;
+    private final boolean statelessPrincipal;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   TokenRevocationRegistry revocationRegistry,
+                                   TokenDenylist tokenDenylist,
+                                   @Value("${application.security.jwt.stateless-principal:false}")
+                                   boolean statelessPrincipal) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.revocationRegistry = revocationRegistry;
+        this.tokenDenylist = tokenDenylist;
+        this.statelessPrincipal = statelessPrincipal;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -29,22 +48,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
-        final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
+        final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith(JwtService.BEARER_PREFIX)) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        Optional<VerifiedToken> token = jwtService.verify(
+                authHeader.substring(JwtService.BEARER_PREFIX.length()));
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (token.isPresent() && token.get().username() != null &&
+                SecurityContextHolder.getContext().getAuthentication() == null &&
+                !isRevoked(token.get())) {
+            UserDetails userDetails = statelessPrincipal ?
+                    principalFromClaims(token.get()) :
+                    this.userDetailsService.loadUserByUsername(token.get().username());
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (userDetails != null && jwtService.isTokenValid(token.get(), userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -58,4 +79,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    // Logout revokes a single token, bans and forced revocation every token issued to the user up to that point
+    private boolean isRevoked(VerifiedToken token) {
+        return tokenDenylist.isRevoked(token.jti()) ||
+                token.userId() != null && revocationRegistry.isRevoked(token.userId(), token.issuedAt());
+    }
+
+    // Trusts the verified claims instead of loading the user; bans and deactivations are enforced by revocation
+    private UserDetails principalFromClaims(VerifiedToken token) {
+        if (token.userId() == null) {
+            return null;
+        }
+        try {
+            return SecurityUser.fromToken(token);
+        } catch (IllegalArgumentException e) {
+            log.debug("Rejected JWT with unknown role: {}", e.getMessage());
+            return null;
+        }
+    }
 }
@@ -0,0 +1,79 @@
+package ai.lingualeap.lingualeap.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limit on login attempts per username and per client address, checked before the user is loaded or any
+ * password is hashed. The address limit is looser, since one address may front many legitimate users.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final String METRIC = "security.login.throttle";
+    private static final String OUTCOME = "outcome";
+    private static final String LIMIT = "limit";
+    private static final String REJECTED = "rejected";
+
+    private final TokenBuckets usernameBuckets;
+    private final TokenBuckets addressBuckets;
+    private final Duration usernameRetryAfter;
+    private final Duration addressRetryAfter;
+    private final Counter allowed;
+    private final Counter rejectedByUsername;
+    private final Counter rejectedByAddress;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${application.security.login-throttle.username.capacity:5}") int usernameCapacity,
+                         @Value("${application.security.login-throttle.username.refill-interval:PT30S}")
+                         Duration usernameRefill,
+                         @Value("${application.security.login-throttle.ip.capacity:200}") int addressCapacity,
+                         @Value("${application.security.login-throttle.ip.refill-interval:PT0.1S}")
+                         Duration addressRefill,
+                         @Value("${application.security.login-throttle.max-keys:100000}") long maxKeys,
+                         @Value("${application.security.login-throttle.expire-after-access:PT15M}")
+                         Duration expireAfterAccess) {
+        this(meterRegistry, new TokenBuckets(usernameCapacity, usernameRefill, maxKeys, expireAfterAccess, clock()),
+                new TokenBuckets(addressCapacity, addressRefill, maxKeys, expireAfterAccess, clock()),
+                usernameRefill, addressRefill);
+    }
+
+    LoginThrottle(MeterRegistry meterRegistry, TokenBuckets usernameBuckets, TokenBuckets addressBuckets,
+                  Duration usernameRetryAfter, Duration addressRetryAfter) {
+        this.usernameBuckets = usernameBuckets;
+        this.addressBuckets = addressBuckets;
+        this.usernameRetryAfter = usernameRetryAfter;
+        this.addressRetryAfter = addressRetryAfter;
+        this.allowed = meterRegistry.counter(METRIC, OUTCOME, "allowed");
+        this.rejectedByUsername = meterRegistry.counter(METRIC, OUTCOME, REJECTED, LIMIT, "username");
+        this.rejectedByAddress = meterRegistry.counter(METRIC, OUTCOME, REJECTED, LIMIT, "ip");
+        meterRegistry.gauge("security.login.throttle.keys", this, throttle ->
+                throttle.usernameBuckets.size() + throttle.addressBuckets.size());
+    }
+
+    /**
+     * Takes one attempt from both buckets, or throws {@link LoginThrottledException} if either is empty.
+     */
+    public void acquire(String username, String clientAddress) {
+        if (clientAddress != null && !addressBuckets.tryAcquire(clientAddress)) {
+            rejectedByAddress.increment();
+            throw new LoginThrottledException(addressRetryAfter);
+        }
+        if (username != null && !usernameBuckets.tryAcquire(username)) {
+            rejectedByUsername.increment();
+            throw new LoginThrottledException(usernameRetryAfter);
+        }
+        allowed.increment();
+    }
+
+    // Milliseconds since creation, which keeps the packed timestamps well inside their 40 bits
+    private static LongSupplier clock() {
+        long origin = System.nanoTime();
+        return () -> (System.nanoTime() - origin) / 1_000_000;
+    }
+}
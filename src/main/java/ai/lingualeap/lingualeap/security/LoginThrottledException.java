@@ -0,0 +1,19 @@
+package ai.lingualeap.lingualeap.security;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Too many login attempts for the username or the client address.
+ */
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LoginThrottledException(Duration retryAfter) {
+        super("Too many login attempts, please retry later");
+        this.retryAfter = retryAfter;
+    }
+}
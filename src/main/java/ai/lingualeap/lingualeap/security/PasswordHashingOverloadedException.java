@@ -0,0 +1,11 @@
+package ai.lingualeap.lingualeap.security;
+
+/**
+ * The password hashing pool is saturated; the request should be retried later.
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    public PasswordHashingOverloadedException() {
+        super("Too many concurrent sign-in requests, please retry shortly");
+    }
+}
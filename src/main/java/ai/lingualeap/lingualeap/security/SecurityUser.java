@@ -1,6 +1,8 @@
 package ai.lingualeap.lingualeap.security;
 
 import ai.lingualeap.lingualeap.dao.entity.User;
+import ai.lingualeap.lingualeap.model.enums.UserRole;
+import ai.lingualeap.lingualeap.model.enums.UserStatus;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
@@ -8,6 +10,8 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.stream.Collectors;
 
 @Getter
 @RequiredArgsConstructor
@@ -15,6 +19,22 @@ public class SecurityUser implements UserDetails {
 
     private final User user;
 
+    /**
+     * Builds a principal from the claims of a verified token instead of the database. The user behind it is detached
+     * and only carries the id, username, email and roles; it has no password and must not be persisted.
+     */
+    public static SecurityUser fromToken(VerifiedToken token) {
+        User user = new User();
+        user.setId(token.userId());
+        user.setUsername(token.username());
+        user.setEmail(token.email());
+        user.setStatus(UserStatus.ACTIVE);
+        user.setRoles(token.roles().stream()
+                .map(UserRole::valueOf)
+                .collect(Collectors.toCollection(HashSet::new)));
+        return new SecurityUser(user);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return user.getRoles().stream()
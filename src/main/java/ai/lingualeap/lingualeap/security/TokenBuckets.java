@@ -0,0 +1,67 @@
+package ai.lingualeap.lingualeap.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by string, one {@link AtomicLong} each. The long packs the time of the last refill in its
+ * upper 40 bits (milliseconds since the buckets were created) and the remaining thousandths of a token in the
+ * lower 24, so taking a token is a single compare-and-set and a rejection writes nothing at all.
+ */
+final class TokenBuckets {
+
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long SCALE = 1_000;
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long capacity;
+    private final long refillMillis;
+    private final LongSupplier clock;
+
+    TokenBuckets(int capacity, Duration refillInterval, long maxKeys, Duration expireAfterAccess, LongSupplier clock) {
+        if (capacity < 1 || capacity * SCALE > TOKEN_MASK) {
+            throw new IllegalArgumentException("Bucket capacity must be between 1 and " + TOKEN_MASK / SCALE);
+        }
+        this.capacity = capacity * SCALE;
+        this.refillMillis = Math.max(1, refillInterval.toMillis());
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    boolean tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = buckets.get(key, ignored -> new AtomicLong(pack(now, capacity)));
+        while (true) {
+            long state = bucket.get();
+            long refilledAt = state >>> TOKEN_BITS;
+            long tokens = state & TOKEN_MASK;
+            long available = Math.min(capacity, tokens + Math.max(0, now - refilledAt) * SCALE / refillMillis);
+            if (available < SCALE) {
+                return false;
+            }
+            // Only advance the refill time by what was credited, so partial tokens carry over to the next attempt
+            long creditedUntil = available == capacity ?
+                    Math.max(now, refilledAt) :
+                    refilledAt + (available - tokens) * refillMillis / SCALE;
+            if (bucket.compareAndSet(state, pack(creditedUntil, available - SCALE))) {
+                return true;
+            }
+        }
+    }
+
+    long size() {
+        return buckets.estimatedSize();
+    }
+
+    private static long pack(long millis, long tokens) {
+        return millis << TOKEN_BITS | tokens;
+    }
+}
@@ -0,0 +1,135 @@
+package ai.lingualeap.lingualeap.security;
+
+import ai.lingualeap.lingualeap.dao.repository.jdbc.RevokedTokenJdbcRepository;
+import ai.lingualeap.lingualeap.service.cache.BloomFilter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Individually revoked tokens, such as those ended by logout. Every request consults the in-memory Bloom filter;
+ * only a hit, which is either a revoked token or a rare false positive, is confirmed against the database.
+ * Revocations made on this node are added immediately; those made on other nodes are loaded from the table every
+ * refresh interval. Expired rows are purged on refresh. Since a Bloom filter cannot forget entries, it is rebuilt
+ * from the active rows whenever this node purged some, or once it holds more entries than it was sized for; in a
+ * cluster only one node wins each purge, so the others rely on the fill check to drop expired tokens.
+ * <p>
+ * The filter is first built before the web server starts; until a build succeeds every token is checked against
+ * the database.
+ */
+@Slf4j
+@Component
+public class TokenDenylist implements SmartInitializingSingleton {
+
+    private final RevokedTokenJdbcRepository revokedTokenRepository;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService refresher;
+    private final AtomicLong filterInsertions = new AtomicLong();
+    private volatile BloomFilter filter;
+    private volatile long filterCapacity;
+    private volatile Instant lastRefresh = Instant.EPOCH;
+    private volatile boolean loaded;
+
+    public TokenDenylist(RevokedTokenJdbcRepository revokedTokenRepository,
+                         @Value("${application.security.jwt.denylist.expected-revocations:100000}")
+                         long expectedRevocations,
+                         @Value("${application.security.jwt.denylist.false-positive-rate:0.01}")
+                         double falsePositiveRate,
+                         @Value("${application.security.jwt.revocation-refresh:PT15S}") Duration refreshInterval) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.refreshInterval = refreshInterval;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        this.filterCapacity = expectedRevocations;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-denylist-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Failed to load token denylist, checking every token in the database until a refresh succeeds",
+                    e);
+        }
+        refresher.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tokens without a {@code jti} predate the denylist and cannot be revoked individually; they still expire.
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || loaded && !filter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.isRevoked(jti);
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.insert(jti, expiresAt);
+        put(jti);
+    }
+
+    void refresh() {
+        try {
+            boolean purged = revokedTokenRepository.deleteExpired() > 0;
+            if (!loaded || purged || filterInsertions.get() > filterCapacity) {
+                rebuild();
+                return;
+            }
+            // Overlap the previous window so rows from transactions that committed late are not skipped
+            Instant startedAt = Instant.now();
+            List<String> revoked = revokedTokenRepository.findJtisRevokedSince(lastRefresh.minus(refreshInterval));
+            revoked.forEach(this::put);
+            lastRefresh = startedAt;
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh token denylist", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    // Counts every add, repeats included, so the fill check errs towards rebuilding early
+    private void put(String jti) {
+        filter.put(jti);
+        filterInsertions.incrementAndGet();
+    }
+
+    private void rebuild() {
+        Instant startedAt = Instant.now();
+        List<String> active = revokedTokenRepository.findActiveJtis();
+        long capacity = Math.max(expectedRevocations, 2L * active.size());
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        active.forEach(rebuilt::put);
+        filter = rebuilt;
+        filterCapacity = capacity;
+        filterInsertions.set(active.size());
+        lastRefresh = startedAt;
+        loaded = true;
+        log.debug("Rebuilt token denylist filter with {} revoked tokens", active.size());
+    }
+}
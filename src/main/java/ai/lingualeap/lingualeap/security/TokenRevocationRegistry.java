@@ -0,0 +1,119 @@
+package ai.lingualeap.lingualeap.security;
+
+import ai.lingualeap.lingualeap.dao.repository.UserRepository;
+import ai.lingualeap.lingualeap.dao.repository.projection.TokenRevocationView;
+import ai.lingualeap.lingualeap.service.event.UserTokensRevokedEvent;
+import ai.lingualeap.lingualeap.service.event.UsersStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user "not before" instants of tokens, so a principal built from token claims still honours bans,
+ * deactivations and credential changes. Only revocations younger than the token lifetime are kept: older ones
+ * can no longer match an unexpired token. Local revocations apply on commit; those made on other nodes are picked
+ * up by the periodic reload from the users table, so they take at most one refresh interval to propagate.
+ * <p>
+ * The first load runs once all singletons exist, before the web server starts. If it fails, every token counts as
+ * revoked until a later reload succeeds, since an empty registry would otherwise let banned users through.
+ */
+@Slf4j
+@Component
+public class TokenRevocationRegistry implements SmartInitializingSingleton {
+
+    private final UserRepository userRepository;
+    private final Duration tokenLifetime;
+    private final Duration refreshInterval;
+    private final Map<Long, Instant> notBefore = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refresher;
+    private volatile boolean loaded;
+
+    public TokenRevocationRegistry(UserRepository userRepository,
+                                   @Value("${application.security.jwt.expiration}") long jwtExpiration,
+                                   @Value("${application.security.jwt.revocation-refresh:PT15S}")
+                                   Duration refreshInterval) {
+        this.userRepository = userRepository;
+        this.tokenLifetime = Duration.ofMillis(jwtExpiration);
+        this.refreshInterval = refreshInterval;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        refresh();
+        refresher.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Whether a token issued at {@code issuedAt} predates the user's last revocation. Token timestamps have
+     * second precision, so the revocation instant is rounded up to the next second; a token issued within the
+     * same second as the revocation is rejected as well.
+     */
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        if (issuedAt == null || !loaded) {
+            return true;
+        }
+        Instant revokedAt = notBefore.get(userId);
+        if (revokedAt == null) {
+            return false;
+        }
+        Instant threshold = revokedAt.truncatedTo(ChronoUnit.SECONDS).equals(revokedAt) ?
+                revokedAt :
+                revokedAt.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        return issuedAt.toInstant().isBefore(threshold);
+    }
+
+    @TransactionalEventListener
+    public void onTokensRevoked(UserTokensRevokedEvent event) {
+        record(event.userId(), event.notBefore());
+    }
+
+    @TransactionalEventListener
+    public void onUsersStatusChanged(UsersStatusChangedEvent event) {
+        if (event.tokensNotBefore() != null) {
+            event.userIds().forEach(userId -> record(userId, event.tokensNotBefore()));
+        }
+    }
+
+    void refresh() {
+        Instant horizon = Instant.now().minus(tokenLifetime);
+        try {
+            for (TokenRevocationView revocation : userRepository.findTokenRevocationsSince(horizon)) {
+                record(revocation.getUserId(), revocation.getNotBefore());
+            }
+            notBefore.values().removeIf(revokedAt -> revokedAt.isBefore(horizon));
+            loaded = true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to reload token revocations, keeping {} known entries", notBefore.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void record(Long userId, Instant revokedAt) {
+        if (userId != null && revokedAt != null) {
+            notBefore.merge(userId, revokedAt, (current, revoked) -> revoked.isAfter(current) ? revoked : current);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ai.lingualeap.lingualeap.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Claims of a token whose signature and expiry have already been checked, so callers read the subject, identity,
+ * expiry and roles without parsing the token again.
+ */
+public record VerifiedToken(Claims claims) {
+
+    public String username() {
+        return claims.getSubject();
+    }
+
+    public String jti() {
+        return claims.getId();
+    }
+
+    public Long userId() {
+        Object userId = claims.get(JwtService.USER_ID_CLAIM);
+        return userId instanceof Number number ? number.longValue() : null;
+    }
+
+    public String email() {
+        return claims.get(JwtService.EMAIL_CLAIM, String.class);
+    }
+
+    public Date issuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    public Date expiration() {
+        return claims.getExpiration();
+    }
+
+    public List<String> roles() {
+        Object roles = claims.get(JwtService.ROLES_CLAIM);
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return values.stream().map(String::valueOf).toList();
+    }
+
+    public boolean isExpired(Date now) {
+        return expiration() != null && expiration().before(now);
+    }
+}
@@ -6,5 +6,6 @@ import ai.lingualeap.lingualeap.model.response.AuthResponse;
 
 public interface AuthenticationService {
     AuthResponse register(UserCreateRequest request);
-    AuthResponse login(LoginRequest request);
+    AuthResponse login(LoginRequest request, String clientAddress);
+    void logout(String authorizationHeader);
 }
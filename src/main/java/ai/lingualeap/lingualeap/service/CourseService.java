@@ -0,0 +1,7 @@
+package ai.lingualeap.lingualeap.service;
+
+import ai.lingualeap.lingualeap.model.response.LearningPathResponse;
+
+public interface CourseService {
+    LearningPathResponse getLearningPath(Long courseId);
+}
@@ -0,0 +1,9 @@
+package ai.lingualeap.lingualeap.service;
+
+import ai.lingualeap.lingualeap.model.response.LessonImportResponse;
+
+import java.io.InputStream;
+
+public interface LessonImportService {
+    LessonImportResponse importLessons(InputStream ndjson);
+}
@@ -0,0 +1,17 @@
+package ai.lingualeap.lingualeap.service;
+
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonStatus;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.response.LessonSearchResultResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface LessonSearchService {
+    Slice<LessonSearchResultResponse> search(String text,
+                                             LessonType type,
+                                             LessonLevel level,
+                                             LessonStatus status,
+                                             Long moduleId,
+                                             Pageable pageable);
+}
@@ -1,32 +1,54 @@
 package ai.lingualeap.lingualeap.service;
 
+import ai.lingualeap.lingualeap.model.enums.LessonField;
 import ai.lingualeap.lingualeap.model.enums.LessonLevel;
 import ai.lingualeap.lingualeap.model.enums.LessonStatus;
 import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.enums.PrerequisiteView;
 import ai.lingualeap.lingualeap.model.request.LessonCreateRequest;
+import ai.lingualeap.lingualeap.model.request.LessonMoveRequest;
 import ai.lingualeap.lingualeap.model.request.LessonUpdateRequest;
+import ai.lingualeap.lingualeap.model.response.CursorPage;
+import ai.lingualeap.lingualeap.model.response.LessonAvailabilityResponse;
 import ai.lingualeap.lingualeap.model.response.LessonResponse;
+import ai.lingualeap.lingualeap.model.response.LessonSummaryResponse;
+import ai.lingualeap.lingualeap.service.cache.ModuleSnapshot;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public interface LessonService {
     LessonResponse createLesson(LessonCreateRequest request);
     LessonResponse updateLesson(Long id, LessonUpdateRequest request);
     LessonResponse getLessonById(Long id);
-    Page<LessonResponse> searchLessons(LessonType type,
-                                       LessonLevel level,
-                                       LessonStatus status,
-                                       Long moduleId,
-                                       Pageable pageable);
+    LessonResponse getLessonById(Long id, PrerequisiteView view, Integer depth);
+    String getLessonETag(Long id, PrerequisiteView view, Integer depth);
+    Page<LessonSummaryResponse> searchLessons(LessonType type,
+                                              LessonLevel level,
+                                              LessonStatus status,
+                                              Long moduleId,
+                                              Set<LessonField> fields,
+                                              Pageable pageable);
+    CursorPage<LessonSummaryResponse> scrollLessons(LessonType type,
+                                                    LessonLevel level,
+                                                    LessonStatus status,
+                                                    Long moduleId,
+                                                    Set<LessonField> fields,
+                                                    String cursor,
+                                                    int size);
     void deleteLesson(Long id);
     LessonResponse updateLessonStatus(Long id, LessonStatus status);
     void reorderLessons(Long moduleId, Map<Long, Integer> lessonSequences);
-    List<LessonResponse> getLessonsByModuleId(Long moduleId);
+    LessonResponse moveLesson(Long id, LessonMoveRequest request);
+    List<LessonSummaryResponse> getLessonsByModuleId(Long moduleId, Set<LessonField> fields);
+    String getLessonsByModuleETag(Long moduleId, Set<LessonField> fields);
+    ModuleSnapshot getPublishedLessonsSnapshot(Long moduleId);
     void addPrerequisite(Long lessonId, Long prerequisiteId);
     void removePrerequisite(Long lessonId, Long prerequisiteId);
     boolean isLessonCompletedByUser(Long lessonId, Long userId);
     List<LessonResponse> getAvailableLessonsForUser(Long userId, Long moduleId);
+    List<LessonAvailabilityResponse> getLessonAvailabilityForCourse(Long userId, Long courseId);
 }
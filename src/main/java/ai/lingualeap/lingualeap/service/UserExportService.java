@@ -0,0 +1,20 @@
+package ai.lingualeap.lingualeap.service;
+
+import ai.lingualeap.lingualeap.model.enums.ExportFormat;
+import ai.lingualeap.lingualeap.model.enums.UserStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface UserExportService {
+
+    /**
+     * Writes every matching user to {@code output}, ordered by creation date, and returns the number of rows.
+     */
+    long exportUsers(UserStatus status,
+                     LocalDateTime createdAtStart,
+                     LocalDateTime createdAtEnd,
+                     ExportFormat format,
+                     OutputStream output) throws IOException;
+}
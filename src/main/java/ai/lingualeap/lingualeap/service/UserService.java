@@ -1,8 +1,11 @@
 package ai.lingualeap.lingualeap.service;
 
 import ai.lingualeap.lingualeap.model.enums.UserStatus;
+import ai.lingualeap.lingualeap.model.request.UserBulkStatusRequest;
 import ai.lingualeap.lingualeap.model.request.UserCreateRequest;
 import ai.lingualeap.lingualeap.model.request.UserUpdateRequest;
+import ai.lingualeap.lingualeap.model.response.CursorPage;
+import ai.lingualeap.lingualeap.model.response.UserBulkStatusResponse;
 import ai.lingualeap.lingualeap.model.response.UserResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -17,6 +20,8 @@ public interface UserService {
 
     UserResponse getUserById(Long id);
 
+    String getUserETag(Long id);
+
     UserResponse getUserByUsername(String username);
 
     Page<UserResponse> searchUsers(UserStatus status,
@@ -24,10 +29,23 @@ public interface UserService {
                                    LocalDateTime createdAtEnd,
                                    Pageable pageable);
 
+    CursorPage<UserResponse> scrollUsers(UserStatus status,
+                                         LocalDateTime createdAtStart,
+                                         LocalDateTime createdAtEnd,
+                                         String cursor,
+                                         int size);
+
     void deactivateUser(Long id);
 
     void updateUserStatus(Long id, UserStatus status);
 
+    /**
+     * Changes the status of up to 10000 users at once. The acting user is never changed, even if selected.
+     */
+    UserBulkStatusResponse updateUserStatuses(UserBulkStatusRequest request, String actingUsername);
+
+    void revokeTokens(Long id);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
@@ -0,0 +1,83 @@
+package ai.lingualeap.lingualeap.service.activity;
+
+import ai.lingualeap.lingualeap.dao.repository.jdbc.UserLoginJdbcRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Last-login timestamps held in memory and written in batches, so logins stay read-only. Repeated logins of a
+ * user between two flushes collapse into the latest one. A failed flush keeps its entries for the next attempt;
+ * what is still pending on shutdown is flushed once more.
+ */
+@Slf4j
+@Component
+public class LastLoginBuffer {
+
+    private final UserLoginJdbcRepository userLoginRepository;
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final Timer flushTimer;
+    private volatile long lastFlushNanos = System.nanoTime();
+
+    public LastLoginBuffer(UserLoginJdbcRepository userLoginRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${application.users.last-login.flush-interval:PT5S}") Duration flushInterval) {
+        this.userLoginRepository = userLoginRepository;
+        this.flushTimer = meterRegistry.timer("users.last-login.flush");
+        meterRegistry.gaugeMapSize("users.last-login.pending", Tags.empty(), pending);
+        meterRegistry.gauge("users.last-login.lag", this, LastLoginBuffer::lagSeconds);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "last-login-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void record(Long userId, LocalDateTime loginAt) {
+        pending.merge(userId, loginAt, (current, latest) -> latest.isAfter(current) ? latest : current);
+    }
+
+    public void flush() {
+        if (pending.isEmpty()) {
+            lastFlushNanos = System.nanoTime();
+            return;
+        }
+        Map<Long, LocalDateTime> batch = new HashMap<>(pending);
+        try {
+            int updated = flushTimer.recordCallable(() -> userLoginRepository.updateLastLogins(batch));
+            // Entries replaced by a newer login in the meantime stay for the next flush
+            batch.forEach(pending::remove);
+            lastFlushNanos = System.nanoTime();
+            log.debug("Flushed {} last-login timestamps, {} rows updated", batch.size(), updated);
+        } catch (Exception e) {
+            log.warn("Failed to flush {} last-login timestamps, retrying on the next flush", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    // Seconds the oldest unwritten login may have waited; zero when nothing is pending
+    private double lagSeconds() {
+        return pending.isEmpty() ? 0 : (System.nanoTime() - lastFlushNanos) / 1e9;
+    }
+}
@@ -0,0 +1,118 @@
+package ai.lingualeap.lingualeap.service.cache;
+
+import ai.lingualeap.lingualeap.model.enums.LessonField;
+import ai.lingualeap.lingualeap.model.response.LessonResponse;
+import ai.lingualeap.lingualeap.model.response.LessonSummaryResponse;
+import ai.lingualeap.lingualeap.service.event.LessonChangedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonDeletedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonsImportedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonsReorderedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for lesson detail responses and module lesson lists, each stored with the version
+ * fingerprint it was loaded at. Lesson entries hold prerequisite ids only, so summary and tree rendering stays
+ * outside the cache. Entries are evicted after commit by the lesson change events and otherwise expire after a
+ * TTL; hit, miss and eviction counts are published as {@code cache.*} meters.
+ */
+@Slf4j
+@Component
+public class CatalogCache {
+
+    private final Cache<Long, Versioned<LessonResponse>> lessons;
+    private final Cache<ModuleLessonsKey, ModuleLessons> moduleLessons;
+    private final AtomicLong epoch = new AtomicLong();
+    private final Map<Long, Long> moduleChangedAt = new ConcurrentHashMap<>();
+
+    public CatalogCache(MeterRegistry meterRegistry,
+                        @Value("${application.cache.catalog.max-lessons:10000}") long maxLessons,
+                        @Value("${application.cache.catalog.max-module-lists:2000}") long maxModuleLists,
+                        @Value("${application.cache.catalog.expire-after-write:PT10M}") Duration ttl) {
+        this.lessons = Caffeine.newBuilder()
+                .maximumSize(maxLessons)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.moduleLessons = Caffeine.newBuilder()
+                .maximumSize(maxModuleLists)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, lessons, "catalog.lessons");
+        CaffeineCacheMetrics.monitor(meterRegistry, moduleLessons, "catalog.module-lessons");
+    }
+
+    public Versioned<LessonResponse> getLesson(Long id, Function<Long, Versioned<LessonResponse>> loader) {
+        return lessons.get(id, loader);
+    }
+
+    public Versioned<List<LessonSummaryResponse>> getModuleLessons(
+            Long moduleId,
+            Set<LessonField> fields,
+            Supplier<Versioned<List<LessonSummaryResponse>>> loader) {
+        ModuleLessonsKey key = new ModuleLessonsKey(moduleId, Set.copyOf(fields));
+        ModuleLessons cached = load(key, loader);
+        // A load that overlapped a commit can land after that commit's eviction; treat it as stale
+        if (cached.loadedAt() < moduleChangedAt.getOrDefault(moduleId, Long.MIN_VALUE)) {
+            moduleLessons.asMap().remove(key, cached);
+            cached = load(key, loader);
+        }
+        return cached.lessons();
+    }
+
+    @TransactionalEventListener
+    public void onLessonChanged(LessonChangedEvent event) {
+        lessons.invalidate(event.lessonId());
+        evictModule(event.moduleId());
+    }
+
+    @TransactionalEventListener
+    public void onLessonDeleted(LessonDeletedEvent event) {
+        lessons.invalidate(event.lessonId());
+        evictModule(event.moduleId());
+    }
+
+    @TransactionalEventListener
+    public void onLessonsReordered(LessonsReorderedEvent event) {
+        lessons.invalidateAll(event.lessonIds());
+        evictModule(event.moduleId());
+    }
+
+    @TransactionalEventListener
+    public void onLessonsImported(LessonsImportedEvent event) {
+        event.moduleIds().forEach(this::evictModule);
+    }
+
+    private ModuleLessons load(ModuleLessonsKey key, Supplier<Versioned<List<LessonSummaryResponse>>> loader) {
+        long startedAt = epoch.get();
+        return moduleLessons.get(key, ignored -> new ModuleLessons(startedAt, loader.get()));
+    }
+
+    private void evictModule(Long moduleId) {
+        moduleChangedAt.put(moduleId, epoch.incrementAndGet());
+        moduleLessons.asMap().keySet().removeIf(key -> key.moduleId().equals(moduleId));
+        log.debug("Evicted cached lesson lists of module {}", moduleId);
+    }
+
+    private record ModuleLessonsKey(Long moduleId, Set<LessonField> fields) {
+    }
+
+    private record ModuleLessons(long loadedAt, Versioned<List<LessonSummaryResponse>> lessons) {
+    }
+}
@@ -0,0 +1,17 @@
+package ai.lingualeap.lingualeap.service.cache;
+
+/**
+ * Immutable, pre-serialized JSON of a module's published lessons with its gzip encoding. {@code builtFrom} is
+ * the invalidation epoch the build started at, used to keep an older build from replacing a newer one, and
+ * {@code versions} the module's version fingerprint read before the lessons, used to detect changes made on
+ * other nodes.
+ */
+public record ModuleSnapshot(
+        Long moduleId,
+        long builtFrom,
+        String versions,
+        String eTag,
+        byte[] json,
+        byte[] gzip
+) {
+}
@@ -0,0 +1,180 @@
+package ai.lingualeap.lingualeap.service.cache;
+
+import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
+import ai.lingualeap.lingualeap.model.enums.LessonStatus;
+import ai.lingualeap.lingualeap.model.response.LessonSummaryResponse;
+import ai.lingualeap.lingualeap.service.event.LessonChangedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonDeletedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonsImportedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonsReorderedEvent;
+import ai.lingualeap.lingualeap.service.mapper.LessonSummaryAssembler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized snapshots of each module's published lessons, so the read path hands out prepared bytes without
+ * loading, mapping or serializing anything. A snapshot is built on first request and rebuilt on a background
+ * thread after a committed lesson change; until the rebuild lands the previous snapshot keeps being served.
+ * Changes committed on other nodes raise no event here, so a snapshot older than the refresh interval is
+ * checked against the module's version fingerprint on its next request and rebuilt in the background if it moved.
+ */
+@Slf4j
+@Component
+public class ModuleSnapshotCache {
+
+    private final LessonRepository lessonRepository;
+    private final LessonSummaryAssembler lessonSummaryAssembler;
+    private final ObjectMapper objectMapper;
+    private final LoadingCache<Long, ModuleSnapshot> snapshots;
+    private final ExecutorService rebuilder;
+    private final Set<Long> pendingRebuilds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong epoch = new AtomicLong();
+    private final Map<Long, Long> moduleChangedAt = new ConcurrentHashMap<>();
+
+    public ModuleSnapshotCache(LessonRepository lessonRepository,
+                               LessonSummaryAssembler lessonSummaryAssembler,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${application.cache.module-snapshot.max-modules:2000}") long maxModules,
+                               @Value("${application.cache.module-snapshot.refresh-after-write:PT30S}")
+                               Duration refreshAfterWrite) {
+        this.lessonRepository = lessonRepository;
+        this.lessonSummaryAssembler = lessonSummaryAssembler;
+        this.objectMapper = objectMapper;
+        this.rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "module-snapshot-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxModules)
+                .refreshAfterWrite(refreshAfterWrite)
+                .executor(rebuilder)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public ModuleSnapshot load(Long moduleId) {
+                        return build(moduleId);
+                    }
+
+                    @Override
+                    public ModuleSnapshot reload(Long moduleId, ModuleSnapshot current) {
+                        return refresh(moduleId, current);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "catalog.module-snapshots");
+    }
+
+    public ModuleSnapshot get(Long moduleId) {
+        ModuleSnapshot snapshot = snapshots.get(moduleId);
+        // The build may have overlapped a commit whose rebuild was skipped because no snapshot existed yet
+        if (snapshot.builtFrom() < moduleChangedAt.getOrDefault(moduleId, Long.MIN_VALUE)) {
+            scheduleRebuild(moduleId);
+        }
+        return snapshot;
+    }
+
+    @TransactionalEventListener
+    public void onLessonChanged(LessonChangedEvent event) {
+        moduleChanged(event.moduleId());
+    }
+
+    @TransactionalEventListener
+    public void onLessonDeleted(LessonDeletedEvent event) {
+        moduleChanged(event.moduleId());
+    }
+
+    @TransactionalEventListener
+    public void onLessonsReordered(LessonsReorderedEvent event) {
+        moduleChanged(event.moduleId());
+    }
+
+    @TransactionalEventListener
+    public void onLessonsImported(LessonsImportedEvent event) {
+        event.moduleIds().forEach(this::moduleChanged);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void moduleChanged(Long moduleId) {
+        moduleChangedAt.put(moduleId, epoch.incrementAndGet());
+        if (snapshots.getIfPresent(moduleId) != null) {
+            scheduleRebuild(moduleId);
+        }
+    }
+
+    private void scheduleRebuild(Long moduleId) {
+        if (!pendingRebuilds.add(moduleId)) {
+            return;
+        }
+        rebuilder.execute(() -> {
+            pendingRebuilds.remove(moduleId);
+            try {
+                snapshots.asMap().merge(moduleId, build(moduleId), (current, rebuilt) ->
+                        rebuilt.builtFrom() >= current.builtFrom() ? rebuilt : current);
+            } catch (RuntimeException e) {
+                log.warn("Failed to rebuild published lesson snapshot of module {}", moduleId, e);
+            }
+        });
+    }
+
+    // Keeps the current bytes, and with them the ETag, when nothing in the module moved since they were built
+    private ModuleSnapshot refresh(Long moduleId, ModuleSnapshot current) {
+        String versions = lessonRepository.findVersionsByModuleId(moduleId, false).orElse(null);
+        return Objects.equals(versions, current.versions()) ? current : build(moduleId);
+    }
+
+    private ModuleSnapshot build(Long moduleId) {
+        long startedAt = epoch.get();
+        String versions = lessonRepository.findVersionsByModuleId(moduleId, false).orElse(null);
+        List<LessonSummaryResponse> lessons = lessonSummaryAssembler.toResponses(
+                lessonRepository.findSummariesByModuleIdAndStatus(moduleId, LessonStatus.PUBLISHED), Set.of());
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(lessons);
+            byte[] gzip = gzip(json);
+            log.debug("Built published lesson snapshot of module {}: {} lessons, {} bytes, {} gzipped",
+                    moduleId, lessons.size(), json.length, gzip.length);
+            return new ModuleSnapshot(moduleId, startedAt, versions, DigestUtils.md5DigestAsHex(json), json, gzip);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize lessons of module " + moduleId, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
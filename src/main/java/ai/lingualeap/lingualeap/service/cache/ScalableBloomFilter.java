@@ -0,0 +1,77 @@
+package ai.lingualeap.lingualeap.service.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filter that grows instead of degrading: once the newest segment has taken its planned number of keys, a
+ * segment twice as large with half the false-positive rate is added. The rates form a geometric series, so the
+ * overall rate stays below twice the initial one however far the set grows.
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        segments.add(new Segment(Math.max(1, initialCapacity), falsePositiveRate));
+    }
+
+    public void put(CharSequence key) {
+        Segment current = segments.get(segments.size() - 1);
+        current.filter.put(key);
+        if (current.insertions.incrementAndGet() == current.capacity) {
+            grow(current);
+        }
+    }
+
+    public boolean mightContain(CharSequence key) {
+        for (Segment segment : segments) {
+            if (segment.filter.mightContain(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Current chance that a key never added is reported as present, from how full each segment actually is.
+     */
+    public double falsePositiveRate() {
+        double allNegative = 1;
+        for (Segment segment : segments) {
+            allNegative *= 1 - segment.filter.falsePositiveRate(segment.insertions.get());
+        }
+        return 1 - allNegative;
+    }
+
+    public long sizeInBytes() {
+        return segments.stream().mapToLong(segment -> segment.filter.sizeInBytes()).sum();
+    }
+
+    public long insertions() {
+        return segments.stream().mapToLong(segment -> segment.insertions.get()).sum();
+    }
+
+    private synchronized void grow(Segment full) {
+        if (segments.get(segments.size() - 1) == full) {
+            segments.add(new Segment(full.capacity * GROWTH, full.falsePositiveRate * TIGHTENING));
+        }
+    }
+
+    private static final class Segment {
+        private final BloomFilter filter;
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Segment(long capacity, double falsePositiveRate) {
+            this.filter = new BloomFilter(capacity, falsePositiveRate);
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ai.lingualeap.lingualeap.service.cache;
+
+import ai.lingualeap.lingualeap.dao.repository.jdbc.UserIdentifierJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bloom filters of every username and email in use, so availability checks only reach the database for names
+ * that may be taken. Keys are trimmed and lower-cased on both sides, which can only add false positives, never
+ * miss a taken name. Names given up by a rename stay in the filter and cost a database check.
+ * <p>
+ * Until the startup scan completes every name counts as possibly taken. Afterwards names registered on this node
+ * are added as they are written, and names registered on other nodes are picked up from {@code updated_at} every
+ * refresh interval, so for that long another node may report a just-taken name as available; the unique
+ * constraints still reject it on submit.
+ */
+@Slf4j
+@Component
+public class UserIdentifierFilter {
+
+    private static final String CHECKS_METRIC = "users.identifier-filter.checks";
+    private static final String FALSE_POSITIVE_METRIC = "users.identifier-filter.false-positive-rate";
+    private static final String ANSWER = "answer";
+    private static final String KIND = "kind";
+    private static final String USERNAME = "username";
+    private static final String EMAIL = "email";
+
+    private final UserIdentifierJdbcRepository userIdentifierRepository;
+    private final ScalableBloomFilter usernames;
+    private final ScalableBloomFilter emails;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService refresher;
+    private final Counter answeredFromMemory;
+    private final Counter checkedInDatabase;
+    private volatile boolean ready;
+    private volatile LocalDateTime lastRefresh;
+
+    public UserIdentifierFilter(UserIdentifierJdbcRepository userIdentifierRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${application.cache.user-identifiers.initial-capacity:100000}")
+                                long initialCapacity,
+                                @Value("${application.cache.user-identifiers.false-positive-rate:0.01}")
+                                double falsePositiveRate,
+                                @Value("${application.cache.user-identifiers.refresh-interval:PT30S}")
+                                Duration refreshInterval) {
+        this.userIdentifierRepository = userIdentifierRepository;
+        this.usernames = new ScalableBloomFilter(initialCapacity, falsePositiveRate);
+        this.emails = new ScalableBloomFilter(initialCapacity, falsePositiveRate);
+        this.refreshInterval = refreshInterval;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-identifier-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.answeredFromMemory = meterRegistry.counter(CHECKS_METRIC, ANSWER, "memory");
+        this.checkedInDatabase = meterRegistry.counter(CHECKS_METRIC, ANSWER, "database");
+        meterRegistry.gauge(FALSE_POSITIVE_METRIC, Tags.of(KIND, USERNAME),
+                usernames, ScalableBloomFilter::falsePositiveRate);
+        meterRegistry.gauge(FALSE_POSITIVE_METRIC, Tags.of(KIND, EMAIL),
+                emails, ScalableBloomFilter::falsePositiveRate);
+        meterRegistry.gauge("users.identifier-filter.bytes", this, filter ->
+                filter.usernames.sizeInBytes() + filter.emails.sizeInBytes());
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        userIdentifierRepository.forEachIdentifier(this::add);
+        lastRefresh = startedAt;
+        ready = true;
+        log.info("Loaded {} usernames and {} emails into availability filters: {} bytes, false-positive rate {}",
+                usernames.insertions(), emails.insertions(), usernames.sizeInBytes() + emails.sizeInBytes(),
+                String.format(Locale.ROOT, "%.4f", usernames.falsePositiveRate()));
+        refresher.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void add(String username, String email) {
+        if (username != null) {
+            usernames.put(normalize(username));
+        }
+        if (email != null) {
+            emails.put(normalize(email));
+        }
+    }
+
+    public boolean mightContainUsername(String username) {
+        return mightContain(usernames, username);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return mightContain(emails, email);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    void refresh() {
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            // Overlap the previous window so rows from transactions that committed late are not skipped
+            userIdentifierRepository.forEachIdentifierChangedSince(lastRefresh.minus(refreshInterval), this::add);
+            lastRefresh = startedAt;
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh user identifier filters", e);
+        }
+    }
+
+    private boolean mightContain(ScalableBloomFilter filter, String value) {
+        if (!ready || value == null || filter.mightContain(normalize(value))) {
+            checkedInDatabase.increment();
+            return true;
+        }
+        answeredFromMemory.increment();
+        return false;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
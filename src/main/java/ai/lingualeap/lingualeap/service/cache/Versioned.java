@@ -0,0 +1,11 @@
+package ai.lingualeap.lingualeap.service.cache;
+
+/**
+ * A cached value together with the version fingerprint read when it was loaded, so ETags always describe the
+ * exact body that is served.
+ */
+public record Versioned<T>(
+        String versions,
+        T value
+) {
+}
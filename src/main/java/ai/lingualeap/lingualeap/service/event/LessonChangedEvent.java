@@ -0,0 +1,13 @@
+package ai.lingualeap.lingualeap.service.event;
+
+import java.util.Set;
+
+public record LessonChangedEvent(
+        Long lessonId,
+        Long moduleId,
+        Set<Long> prerequisiteIds
+) {
+    public boolean prerequisitesChanged() {
+        return prerequisiteIds != null;
+    }
+}
@@ -0,0 +1,7 @@
+package ai.lingualeap.lingualeap.service.event;
+
+public record LessonDeletedEvent(
+        Long lessonId,
+        Long moduleId
+) {
+}
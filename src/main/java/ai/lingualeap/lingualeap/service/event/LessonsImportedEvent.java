@@ -0,0 +1,13 @@
+package ai.lingualeap.lingualeap.service.event;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code prerequisiteIdsByLesson} holds every imported lesson in import order, mapped to its prerequisite ids.
+ */
+public record LessonsImportedEvent(
+        Set<Long> moduleIds,
+        Map<Long, Set<Long>> prerequisiteIdsByLesson
+) {
+}
@@ -0,0 +1,9 @@
+package ai.lingualeap.lingualeap.service.event;
+
+import java.util.Set;
+
+public record LessonsReorderedEvent(
+        Long moduleId,
+        Set<Long> lessonIds
+) {
+}
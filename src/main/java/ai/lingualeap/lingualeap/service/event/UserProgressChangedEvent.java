@@ -0,0 +1,8 @@
+package ai.lingualeap.lingualeap.service.event;
+
+public record UserProgressChangedEvent(
+        Long userId,
+        Long lessonId,
+        boolean completed
+) {
+}
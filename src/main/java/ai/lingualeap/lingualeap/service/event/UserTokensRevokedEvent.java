@@ -0,0 +1,9 @@
+package ai.lingualeap.lingualeap.service.event;
+
+import java.time.Instant;
+
+public record UserTokensRevokedEvent(
+        Long userId,
+        Instant notBefore
+) {
+}
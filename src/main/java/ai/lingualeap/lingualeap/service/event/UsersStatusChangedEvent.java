@@ -0,0 +1,16 @@
+package ai.lingualeap.lingualeap.service.event;
+
+import ai.lingualeap.lingualeap.model.enums.UserStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Published by bulk status changes; {@code tokensNotBefore} is {@code null} when the users keep their tokens.
+ */
+public record UsersStatusChangedEvent(
+        List<Long> userIds,
+        UserStatus status,
+        Instant tokensNotBefore
+) {
+}
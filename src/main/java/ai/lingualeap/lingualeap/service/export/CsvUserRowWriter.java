@@ -0,0 +1,96 @@
+package ai.lingualeap.lingualeap.service.export;
+
+import ai.lingualeap.lingualeap.dao.repository.jdbc.UserExportJdbcRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RFC 4180 CSV with a header row. Values are quoted only when they contain a separator, quote or line break.
+ * Values a spreadsheet would evaluate as a formula get a leading apostrophe, so user-entered names cannot run as
+ * formulas in whatever tool opens the export.
+ */
+class CsvUserRowWriter implements UserRowWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String LINE_END = "\r\n";
+    private static final String FORMULA_TRIGGERS = "=+-@\t\r";
+    private static final char FORMULA_ESCAPE = '\'';
+
+    private final Writer writer;
+    private long rows;
+
+    CsvUserRowWriter(OutputStream output) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(String.join(",", UserExportJdbcRepository.COLUMNS));
+        writer.write(LINE_END);
+    }
+
+    @Override
+    public void processRow(ResultSet resultSet) throws SQLException {
+        try {
+            int columns = UserExportJdbcRepository.COLUMNS.length;
+            for (int column = 1; column <= columns; column++) {
+                if (column > 1) {
+                    writer.write(',');
+                }
+                writeValue(resultSet.getString(column));
+            }
+            writer.write(LINE_END);
+            rows++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long rowCount() {
+        return rows;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeValue(String raw) throws IOException {
+        if (raw == null) {
+            return;
+        }
+        String value = isFormula(raw) ? FORMULA_ESCAPE + raw : raw;
+        if (!needsQuoting(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean isFormula(String value) {
+        return !value.isEmpty() && FORMULA_TRIGGERS.indexOf(value.charAt(0)) >= 0;
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
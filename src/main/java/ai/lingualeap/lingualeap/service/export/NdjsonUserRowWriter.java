@@ -0,0 +1,57 @@
+package ai.lingualeap.lingualeap.service.export;
+
+import ai.lingualeap.lingualeap.dao.repository.jdbc.UserExportJdbcRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * One JSON object per line, keyed by column name. The id is written as a number, everything else as a string or
+ * null.
+ */
+class NdjsonUserRowWriter implements UserRowWriter {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private final JsonGenerator generator;
+    private long rows;
+
+    NdjsonUserRowWriter(OutputStream output) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8);
+        generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void processRow(ResultSet resultSet) throws SQLException {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField(UserExportJdbcRepository.COLUMNS[0], resultSet.getLong(1));
+            for (int column = 2; column <= UserExportJdbcRepository.COLUMNS.length; column++) {
+                generator.writeStringField(UserExportJdbcRepository.COLUMNS[column - 1], resultSet.getString(column));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            rows++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long rowCount() {
+        return rows;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.close();
+    }
+}
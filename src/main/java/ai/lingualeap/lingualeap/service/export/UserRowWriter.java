@@ -0,0 +1,28 @@
+package ai.lingualeap.lingualeap.service.export;
+
+import ai.lingualeap.lingualeap.model.enums.ExportFormat;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes export rows straight from the JDBC cursor to the response, column by column, without building an entity
+ * or DTO per user. Columns follow {@code UserExportJdbcRepository.COLUMNS}.
+ */
+public interface UserRowWriter extends RowCallbackHandler {
+
+    static UserRowWriter create(ExportFormat format, OutputStream output) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvUserRowWriter(output);
+            case NDJSON -> new NdjsonUserRowWriter(output);
+        };
+    }
+
+    long rowCount();
+
+    /**
+     * Flushes buffered output; the underlying stream stays open for the caller to close.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,413 @@
+package ai.lingualeap.lingualeap.service.graph;
+
+import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
+import ai.lingualeap.lingualeap.dao.repository.projection.PrerequisiteEdge;
+import ai.lingualeap.lingualeap.service.event.LessonChangedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonDeletedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonsImportedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory index of the {@code lesson_prerequisites} graph. Lesson ids are mapped to dense int
+ * indexes and edges are kept as primitive adjacency arrays in both directions, so prerequisite lookups,
+ * availability checks and learning-path ordering never touch the database. The index is loaded once and then
+ * kept current from committed lesson events, imports included. Changes committed on other nodes are picked up
+ * by a periodic refresh that compares a fingerprint of the lesson and edge tables and, when it differs,
+ * reconciles the index in place. A lesson keeps its dense index for the life of the process either way, so
+ * bitmaps keyed by it, such as those of {@code CompletionBitmapCache}, never point at the wrong lesson.
+ */
+@Slf4j
+@Component
+public class LessonGraph {
+
+    public static final int UNKNOWN_LESSON = LongIntHashMap.MISSING;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int[] NO_EDGES = new int[0];
+
+    private final LessonRepository lessonRepository;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService refresher;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean loaded;
+    private volatile String fingerprint;
+    private LongIntHashMap indexById = new LongIntHashMap(INITIAL_CAPACITY);
+    private long[] idByIndex = new long[INITIAL_CAPACITY];
+    private int[][] prerequisites = new int[INITIAL_CAPACITY][];
+    private int[] prerequisiteCounts = new int[INITIAL_CAPACITY];
+    private int[][] dependents = new int[INITIAL_CAPACITY][];
+    private int[] dependentCounts = new int[INITIAL_CAPACITY];
+    private int nodeCount;
+
+    public LessonGraph(LessonRepository lessonRepository,
+                       @Value("${application.lesson.graph.refresh-interval:PT30S}") Duration refreshInterval) {
+        this.lessonRepository = lessonRepository;
+        this.refreshInterval = refreshInterval;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lesson-graph-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+        refresher.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    public long[] getPrerequisiteIds(Long lessonId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int index = indexById.get(lessonId);
+            if (index == LongIntHashMap.MISSING) {
+                return new long[0];
+            }
+            return toIds(prerequisites[index], prerequisiteCounts[index]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Dense index of a known lesson, or {@link #UNKNOWN_LESSON}. Lookups never add nodes; lessons only enter the
+     * graph through its load and committed lesson events, so ids taken from requests cannot grow it.
+     */
+    public int denseIndex(Long lessonId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return indexById.get(lessonId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fingerprint of the lesson and edge tables as of the last load or refresh. Results derived from the graph can
+     * key on it, so they are rebuilt once a change made on another node has reached the index.
+     */
+    public String getFingerprint() {
+        ensureLoaded();
+        return fingerprint;
+    }
+
+    /**
+     * Whether every direct prerequisite of a known lesson satisfies {@code predicate}. Unknown lessons do not
+     * match; callers that may see lessons committed on other nodes check {@link #denseIndex} first and fall back
+     * to the database.
+     */
+    public boolean allPrerequisitesMatch(Long lessonId, IntPredicate predicate) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int index = indexById.get(lessonId);
+            if (index == LongIntHashMap.MISSING) {
+                return false;
+            }
+            int[] edges = prerequisites[index];
+            for (int i = 0; i < prerequisiteCounts[index]; i++) {
+                if (!predicate.test(edges[i])) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int[] topologicalOrder(List<Long> lessonIds) {
+        ensureLoaded();
+        int size = lessonIds.size();
+        LongIntHashMap positionByIndex = new LongIntHashMap(size);
+        int[] indexByPosition = new int[size];
+        int[] inDegree = new int[size];
+        BitSet ready = new BitSet(size);
+
+        lock.readLock().lock();
+        try {
+            for (int position = 0; position < size; position++) {
+                int index = indexById.get(lessonIds.get(position));
+                indexByPosition[position] = index;
+                if (index != LongIntHashMap.MISSING) {
+                    positionByIndex.put(index + 1L, position);
+                }
+            }
+            for (int position = 0; position < size; position++) {
+                int index = indexByPosition[position];
+                if (index != LongIntHashMap.MISSING) {
+                    for (int i = 0; i < prerequisiteCounts[index]; i++) {
+                        if (positionByIndex.get(prerequisites[index][i] + 1L) != LongIntHashMap.MISSING) {
+                            inDegree[position]++;
+                        }
+                    }
+                }
+                if (inDegree[position] == 0) {
+                    ready.set(position);
+                }
+            }
+
+            int[] order = new int[size];
+            int emitted = 0;
+            BitSet done = new BitSet(size);
+            while (emitted < size) {
+                int position = ready.nextSetBit(0);
+                if (position < 0) {
+                    // Only reachable if the stored graph has a cycle; keep the remaining lessons in sequence order
+                    position = done.nextClearBit(0);
+                }
+                ready.clear(position);
+                done.set(position);
+                order[emitted++] = position;
+
+                int index = indexByPosition[position];
+                if (index == LongIntHashMap.MISSING) {
+                    continue;
+                }
+                for (int i = 0; i < dependentCounts[index]; i++) {
+                    int dependent = positionByIndex.get(dependents[index][i] + 1L);
+                    if (dependent != LongIntHashMap.MISSING && !done.get(dependent) && --inDegree[dependent] == 0) {
+                        ready.set(dependent);
+                    }
+                }
+            }
+            return order;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onLessonChanged(LessonChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int lesson = indexOrAdd(event.lessonId());
+            if (event.prerequisitesChanged()) {
+                replacePrerequisites(lesson, event.prerequisiteIds());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onLessonDeleted(LessonDeletedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(event.lessonId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onLessonsImported(LessonsImportedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Imported lessons only reference existing lessons or earlier records, so in-order adds suffice
+            event.prerequisiteIdsByLesson().forEach((lessonId, prerequisiteIds) -> {
+                int lesson = indexOrAdd(lessonId);
+                prerequisiteIds.forEach(prerequisiteId -> link(lesson, indexOrAdd(prerequisiteId)));
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reconciles the index with the database when the fingerprint changed since the last load or refresh. The
+     * fingerprint is read before the rows, so a change racing the load is seen again on the next run.
+     */
+    void refresh() {
+        try {
+            String current = lessonRepository.findGraphFingerprint();
+            if (!loaded || Objects.equals(current, fingerprint)) {
+                return;
+            }
+            List<Long> lessonIds = lessonRepository.findAllIds();
+            List<PrerequisiteEdge> edges = lessonRepository.findAllPrerequisiteEdges();
+
+            lock.writeLock().lock();
+            try {
+                BitSet present = new BitSet(nodeCount);
+                lessonIds.forEach(lessonId -> present.set(indexOrAdd(lessonId)));
+                for (int index = 0; index < nodeCount; index++) {
+                    if (!present.get(index)) {
+                        remove(idByIndex[index]);
+                    } else {
+                        replacePrerequisites(index, List.of());
+                    }
+                }
+                edges.forEach(edge -> link(indexOrAdd(edge.getLessonId()), indexOrAdd(edge.getPrerequisiteId())));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            fingerprint = current;
+            log.info("Refreshed lesson prerequisite graph with {} lessons and {} edges", lessonIds.size(),
+                    edges.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh lesson prerequisite graph, keeping the current index", e);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                }
+            }
+        }
+    }
+
+    private void load() {
+        String current = lessonRepository.findGraphFingerprint();
+        List<Long> lessonIds = lessonRepository.findAllIds();
+        List<PrerequisiteEdge> edges = lessonRepository.findAllPrerequisiteEdges();
+
+        lock.writeLock().lock();
+        try {
+            int capacity = Math.max(INITIAL_CAPACITY, lessonIds.size());
+            indexById = new LongIntHashMap(capacity);
+            idByIndex = new long[capacity];
+            prerequisites = new int[capacity][];
+            prerequisiteCounts = new int[capacity];
+            dependents = new int[capacity][];
+            dependentCounts = new int[capacity];
+            nodeCount = 0;
+
+            lessonIds.forEach(this::indexOrAdd);
+            edges.forEach(edge -> link(indexOrAdd(edge.getLessonId()), indexOrAdd(edge.getPrerequisiteId())));
+            fingerprint = current;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded lesson prerequisite graph with {} lessons and {} edges", lessonIds.size(), edges.size());
+    }
+
+    private void replacePrerequisites(int lesson, Collection<Long> prerequisiteIds) {
+        while (prerequisiteCounts[lesson] > 0) {
+            unlink(lesson, prerequisites[lesson][0]);
+        }
+        prerequisiteIds.forEach(prerequisiteId -> link(lesson, indexOrAdd(prerequisiteId)));
+    }
+
+    // The index stays allocated so no other lesson ever takes it; only the id mapping and the edges go
+    private void remove(Long lessonId) {
+        int lesson = indexById.remove(lessonId);
+        if (lesson != LongIntHashMap.MISSING) {
+            replacePrerequisites(lesson, List.of());
+            while (dependentCounts[lesson] > 0) {
+                unlink(dependents[lesson][0], lesson);
+            }
+        }
+    }
+
+    private int indexOrAdd(Long lessonId) {
+        int index = indexById.get(lessonId);
+        if (index != LongIntHashMap.MISSING) {
+            return index;
+        }
+        if (nodeCount == idByIndex.length) {
+            grow(nodeCount << 1);
+        }
+        index = nodeCount++;
+        idByIndex[index] = lessonId;
+        prerequisites[index] = NO_EDGES;
+        dependents[index] = NO_EDGES;
+        indexById.put(lessonId, index);
+        return index;
+    }
+
+    private void link(int lesson, int prerequisite) {
+        if (contains(prerequisites[lesson], prerequisiteCounts[lesson], prerequisite)) {
+            return;
+        }
+        prerequisites[lesson] = append(prerequisites[lesson], prerequisiteCounts[lesson]++, prerequisite);
+        dependents[prerequisite] = append(dependents[prerequisite], dependentCounts[prerequisite]++, lesson);
+    }
+
+    private void unlink(int lesson, int prerequisite) {
+        prerequisiteCounts[lesson] = removeValue(prerequisites[lesson], prerequisiteCounts[lesson], prerequisite);
+        dependentCounts[prerequisite] = removeValue(dependents[prerequisite], dependentCounts[prerequisite], lesson);
+    }
+
+    private long[] toIds(int[] indexes, int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = idByIndex[indexes[i]];
+        }
+        return ids;
+    }
+
+    private void grow(int capacity) {
+        idByIndex = Arrays.copyOf(idByIndex, capacity);
+        prerequisites = Arrays.copyOf(prerequisites, capacity);
+        prerequisiteCounts = Arrays.copyOf(prerequisiteCounts, capacity);
+        dependents = Arrays.copyOf(dependents, capacity);
+        dependentCounts = Arrays.copyOf(dependentCounts, capacity);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] append(int[] values, int count, int value) {
+        int[] target = count < values.length ? values : Arrays.copyOf(values, Math.max(4, count << 1));
+        target[count] = value;
+        return target;
+    }
+
+    private static int removeValue(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                values[i] = values[count - 1];
+                return count - 1;
+            }
+        }
+        return count;
+    }
+}
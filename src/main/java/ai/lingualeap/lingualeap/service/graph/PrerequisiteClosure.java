@@ -0,0 +1,84 @@
+package ai.lingualeap.lingualeap.service.graph;
+
+import ai.lingualeap.lingualeap.dao.repository.LessonPrerequisiteClosureRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains the {@code lesson_prerequisite_closure} table (ancestor, descendant, depth) alongside
+ * {@code lesson_prerequisites}. Unlike {@link LessonGraph} it is shared by every node and updated in the
+ * same transaction as the edge change, so write-path checks use it as the source of truth. Edge writes take a
+ * transaction-scoped advisory lock first, so two nodes cannot each pass the cycle check for opposite edges.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class PrerequisiteClosure {
+
+    private final LessonPrerequisiteClosureRepository closureRepository;
+
+    @Transactional
+    public void rebuild() {
+        closureRepository.lockEdgeWrites();
+        closureRepository.deleteAllPaths();
+        int paths = closureRepository.insertAllPaths();
+        log.info("Rebuilt lesson prerequisite closure with {} paths", paths);
+    }
+
+    /**
+     * Holds the edge lock until the caller's transaction ends, so the answer stays true for the insert that follows.
+     */
+    @Transactional
+    public boolean wouldCreateCycle(Long lessonId, Long prerequisiteId) {
+        if (lessonId.equals(prerequisiteId)) {
+            return true;
+        }
+        closureRepository.lockEdgeWrites();
+        return closureRepository.existsPath(lessonId, prerequisiteId);
+    }
+
+    public boolean hasDependents(Long lessonId) {
+        return closureRepository.existsDescendant(lessonId);
+    }
+
+    @Transactional
+    public void onLessonCreated(Long lessonId, Collection<Long> prerequisiteIds) {
+        closureRepository.insertSelf(lessonId);
+        prerequisiteIds.forEach(prerequisiteId -> onPrerequisiteAdded(lessonId, prerequisiteId));
+    }
+
+    @Transactional
+    public void onPrerequisiteAdded(Long lessonId, Long prerequisiteId) {
+        closureRepository.lockEdgeWrites();
+        closureRepository.insertSelf(lessonId);
+        closureRepository.insertSelf(prerequisiteId);
+        closureRepository.insertPaths(lessonId, prerequisiteId);
+    }
+
+    @Transactional
+    public void onPrerequisitesChanged(Long lessonId) {
+        closureRepository.lockEdgeWrites();
+        closureRepository.insertSelf(lessonId);
+        List<Long> affected = closureRepository.findDescendantIdsIncludingSelf(lessonId);
+        closureRepository.deleteInboundPaths(affected);
+        closureRepository.insertInboundPaths(affected);
+    }
+
+    @Transactional
+    public void onLessonsImported(Collection<Long> lessonIds) {
+        closureRepository.lockEdgeWrites();
+        closureRepository.insertSelfRows(lessonIds);
+        closureRepository.insertInboundPaths(lessonIds);
+    }
+
+    @Transactional
+    public void onLessonDeleted(Long lessonId) {
+        closureRepository.deleteByLessonId(lessonId);
+    }
+}
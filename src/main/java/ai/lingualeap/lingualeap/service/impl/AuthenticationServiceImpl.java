@@ -6,12 +6,17 @@ import ai.lingualeap.lingualeap.model.request.LoginRequest;
 import ai.lingualeap.lingualeap.model.request.UserCreateRequest;
 import ai.lingualeap.lingualeap.model.response.AuthResponse;
 import ai.lingualeap.lingualeap.security.JwtService;
+import ai.lingualeap.lingualeap.security.LoginThrottle;
 import ai.lingualeap.lingualeap.security.SecurityUser;
+import ai.lingualeap.lingualeap.security.TokenDenylist;
 import ai.lingualeap.lingualeap.service.AuthenticationService;
+import ai.lingualeap.lingualeap.service.activity.LastLoginBuffer;
+import ai.lingualeap.lingualeap.service.cache.UserIdentifierFilter;
 import ai.lingualeap.lingualeap.service.mapper.UserMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +32,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TokenDenylist tokenDenylist;
+    private final LoginThrottle loginThrottle;
+    private final LastLoginBuffer lastLoginBuffer;
+    private final UserIdentifierFilter userIdentifierFilter;
 
     @Transactional
     public AuthResponse register(UserCreateRequest request) {
@@ -41,6 +50,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
 
         User savedUser = userRepository.save(user);
+        userIdentifierFilter.add(savedUser.getUsername(), savedUser.getEmail());
         String token = jwtService.generateToken(new SecurityUser(savedUser));
 
         return AuthResponse.builder()
@@ -49,19 +59,21 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 .build();
     }
 
-    @Transactional
-    public AuthResponse login(LoginRequest request) {
-        authenticationManager.authenticate(
+    // Deliberately not transactional: throttled attempts must not take a pooled connection, and the user lookup
+    // should not hold one while the password hash is checked
+    public AuthResponse login(LoginRequest request, String clientAddress) {
+        loginThrottle.acquire(request.getUsername(), clientAddress);
+
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getUsername(),
                         request.getPassword()
                 )
         );
 
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        User user = ((SecurityUser) authentication.getPrincipal()).getUser();
 
-        user.setLastLoginAt(LocalDateTime.now());
+        lastLoginBuffer.record(user.getId(), LocalDateTime.now());
         String token = jwtService.generateToken(new SecurityUser(user));
 
         return AuthResponse.builder()
@@ -69,4 +81,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 .username(user.getUsername())
                 .build();
     }
+
+    public void logout(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith(JwtService.BEARER_PREFIX)) {
+            return;
+        }
+        jwtService.verify(authorizationHeader.substring(JwtService.BEARER_PREFIX.length()))
+                .ifPresent(token -> tokenDenylist.revoke(token.jti(), token.expiration().toInstant()));
+    }
 }
@@ -0,0 +1,137 @@
+package ai.lingualeap.lingualeap.service.impl;
+
+import ai.lingualeap.lingualeap.dao.entity.Lesson;
+import ai.lingualeap.lingualeap.dao.entity.Module;
+import ai.lingualeap.lingualeap.dao.repository.CourseRepository;
+import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
+import ai.lingualeap.lingualeap.dao.repository.ModuleRepository;
+import ai.lingualeap.lingualeap.model.response.LearningPathItemResponse;
+import ai.lingualeap.lingualeap.model.response.LearningPathResponse;
+import ai.lingualeap.lingualeap.service.CourseService;
+import ai.lingualeap.lingualeap.service.event.LessonChangedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonDeletedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonsImportedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonsReorderedEvent;
+import ai.lingualeap.lingualeap.service.graph.LessonGraph;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Learning paths are cached per course version: the key holds a digest of the course, module, lesson and edge
+ * versions plus the fingerprint of the local {@link LessonGraph}, so a change made on any node yields a new key
+ * once this node's graph has caught up with it. Local lesson events also evict the course right away.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class CourseServiceImpl implements CourseService {
+
+    private final CourseRepository courseRepository;
+    private final ModuleRepository moduleRepository;
+    private final LessonRepository lessonRepository;
+    private final LessonGraph lessonGraph;
+    private final Cache<LearningPathKey, LearningPathResponse> learningPaths;
+    private final Map<Long, Long> courseIdByModuleId = new ConcurrentHashMap<>();
+
+    public CourseServiceImpl(CourseRepository courseRepository,
+                             ModuleRepository moduleRepository,
+                             LessonRepository lessonRepository,
+                             LessonGraph lessonGraph,
+                             MeterRegistry meterRegistry,
+                             @Value("${application.cache.learning-path.max-courses:1000}") long maxCourses,
+                             @Value("${application.cache.learning-path.expire-after-write:PT1H}") Duration ttl) {
+        this.courseRepository = courseRepository;
+        this.moduleRepository = moduleRepository;
+        this.lessonRepository = lessonRepository;
+        this.lessonGraph = lessonGraph;
+        this.learningPaths = Caffeine.newBuilder()
+                .maximumSize(maxCourses)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, learningPaths, "catalog.learning-paths");
+    }
+
+    @Override
+    public LearningPathResponse getLearningPath(Long courseId) {
+        log.debug("Getting learning path for course: {}", courseId);
+        String version = courseRepository.findLearningPathVersion(courseId)
+                .orElseThrow(() -> new EntityNotFoundException("Course not found with id: " + courseId));
+        LearningPathKey key = new LearningPathKey(courseId, version, lessonGraph.getFingerprint());
+        return learningPaths.get(key, ignored -> buildLearningPath(courseId));
+    }
+
+    @TransactionalEventListener
+    public void onLessonChanged(LessonChangedEvent event) {
+        evictByModule(event.moduleId());
+    }
+
+    @TransactionalEventListener
+    public void onLessonDeleted(LessonDeletedEvent event) {
+        evictByModule(event.moduleId());
+    }
+
+    @TransactionalEventListener
+    public void onLessonsReordered(LessonsReorderedEvent event) {
+        evictByModule(event.moduleId());
+    }
+
+    @TransactionalEventListener
+    public void onLessonsImported(LessonsImportedEvent event) {
+        event.moduleIds().forEach(this::evictByModule);
+    }
+
+    private void evictByModule(Long moduleId) {
+        Long courseId = courseIdByModuleId.get(moduleId);
+        if (courseId != null) {
+            learningPaths.asMap().keySet().removeIf(key -> key.courseId().equals(courseId));
+            log.debug("Evicted learning path for course {} after change in module {}", courseId, moduleId);
+        }
+    }
+
+    private LearningPathResponse buildLearningPath(Long courseId) {
+        List<Module> modules = moduleRepository.findByCourseIdOrderBySequenceAsc(courseId);
+        List<Lesson> lessons = new ArrayList<>();
+        for (Module module : modules) {
+            courseIdByModuleId.put(module.getId(), courseId);
+            lessons.addAll(lessonRepository.findByModuleIdOrderBySequenceAsc(module.getId()));
+        }
+
+        int[] order = lessonGraph.topologicalOrder(lessons.stream().map(Lesson::getId).toList());
+        List<LearningPathItemResponse> items = new ArrayList<>(order.length);
+        for (int position : order) {
+            Lesson lesson = lessons.get(position);
+            items.add(new LearningPathItemResponse(
+                    lesson.getId(),
+                    lesson.getModule().getId(),
+                    lesson.getModule().getSequence(),
+                    lesson.getSequence(),
+                    lesson.getTitle(),
+                    lesson.getType(),
+                    lesson.getLevel(),
+                    Arrays.stream(lessonGraph.getPrerequisiteIds(lesson.getId())).boxed().toList()
+            ));
+        }
+
+        log.info("Built learning path for course {} with {} lessons", courseId, items.size());
+        return new LearningPathResponse(courseId, List.copyOf(items));
+    }
+
+    private record LearningPathKey(Long courseId, String version, String graphFingerprint) {
+    }
+}
@@ -0,0 +1,220 @@
+package ai.lingualeap.lingualeap.service.impl;
+
+import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
+import ai.lingualeap.lingualeap.dao.repository.ModuleRepository;
+import ai.lingualeap.lingualeap.dao.repository.jdbc.LessonImportJdbcRepository;
+import ai.lingualeap.lingualeap.dao.repository.jdbc.LessonImportRow;
+import ai.lingualeap.lingualeap.model.request.LessonImportRecord;
+import ai.lingualeap.lingualeap.model.response.LessonImportResponse;
+import ai.lingualeap.lingualeap.service.LessonImportService;
+import ai.lingualeap.lingualeap.service.event.LessonsImportedEvent;
+import ai.lingualeap.lingualeap.service.graph.PrerequisiteClosure;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Slf4j
+@Service
+public class LessonImportServiceImpl implements LessonImportService {
+
+    private static final String LINE_PREFIX = "Line ";
+
+    private final LessonRepository lessonRepository;
+    private final ModuleRepository moduleRepository;
+    private final LessonImportJdbcRepository lessonImportJdbcRepository;
+    private final PrerequisiteClosure prerequisiteClosure;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public LessonImportServiceImpl(LessonRepository lessonRepository,
+                                   ModuleRepository moduleRepository,
+                                   LessonImportJdbcRepository lessonImportJdbcRepository,
+                                   PrerequisiteClosure prerequisiteClosure,
+                                   ApplicationEventPublisher eventPublisher,
+                                   ObjectMapper objectMapper,
+                                   @Value("${application.lesson-import.chunk-size:500}") int chunkSize) {
+        this.lessonRepository = lessonRepository;
+        this.moduleRepository = moduleRepository;
+        this.lessonImportJdbcRepository = lessonImportJdbcRepository;
+        this.prerequisiteClosure = prerequisiteClosure;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    @Transactional
+    public LessonImportResponse importLessons(InputStream ndjson) {
+        long start = System.nanoTime();
+        ImportState state = new ImportState();
+        List<LessonImportRecord> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<LessonImportRecord> records = objectMapper
+                .readerFor(LessonImportRecord.class)
+                .readValues(ndjson)) {
+            while (records.hasNextValue()) {
+                chunk.add(records.nextValue());
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, state);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(LINE_PREFIX + (state.imported + chunk.size() + 1) +
+                    ": invalid lesson record: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read lesson import stream", e);
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, state);
+        }
+
+        eventPublisher.publishEvent(new LessonsImportedEvent(Set.copyOf(state.sequencesByModule.keySet()),
+                state.prerequisiteIdsByLesson));
+
+        long elapsedNanos = System.nanoTime() - start;
+        double lessonsPerSecond = elapsedNanos == 0 ? 0 : state.imported * 1_000_000_000.0 / elapsedNanos;
+        log.info("Imported {} lessons in {} ms ({} lessons/sec)", state.imported, elapsedNanos / 1_000_000,
+                Math.round(lessonsPerSecond));
+        return new LessonImportResponse(state.imported, elapsedNanos / 1_000_000, lessonsPerSecond);
+    }
+
+    private void writeChunk(List<LessonImportRecord> chunk, ImportState state) {
+        loadModules(chunk, state);
+        verifyPrerequisiteIds(chunk, state);
+
+        List<Long> ids = lessonImportJdbcRepository.reserveIds(chunk.size());
+        List<LessonImportRow> rows = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            LessonImportRecord lesson = chunk.get(i);
+            int line = state.imported + i + 1;
+            Long id = ids.get(i);
+            Set<Long> prerequisiteIds = resolvePrerequisites(lesson, line, state);
+            rows.add(new LessonImportRow(id, lesson.moduleId(), assignSequence(lesson, line, state),
+                    lesson, prerequisiteIds));
+            state.prerequisiteIdsByLesson.put(id, prerequisiteIds);
+            if (lesson.key() != null && state.idsByKey.putIfAbsent(lesson.key(), id) != null) {
+                throw new IllegalArgumentException(LINE_PREFIX + line + ": duplicate key " + lesson.key());
+            }
+        }
+
+        lessonImportJdbcRepository.insertAll(rows, LocalDateTime.now());
+        prerequisiteClosure.onLessonsImported(ids);
+        state.imported += rows.size();
+        log.debug("Imported lesson chunk of {} rows, {} so far", rows.size(), state.imported);
+    }
+
+    private void loadModules(List<LessonImportRecord> chunk, ImportState state) {
+        Set<Long> unseen = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            LessonImportRecord lesson = chunk.get(i);
+            validateRequiredFields(lesson, state.imported + i + 1);
+            if (!state.sequencesByModule.containsKey(lesson.moduleId())) {
+                unseen.add(lesson.moduleId());
+            }
+        }
+        if (unseen.isEmpty()) {
+            return;
+        }
+
+        List<Long> existing = moduleRepository.lockExistingIds(unseen);
+        unseen.removeAll(existing);
+        if (!unseen.isEmpty()) {
+            throw new EntityNotFoundException("Module not found with id: " + unseen.iterator().next());
+        }
+        existing.forEach(moduleId -> state.sequencesByModule.put(moduleId,
+                new TreeSet<>(lessonRepository.findSequencesByModuleId(moduleId))));
+    }
+
+    private void verifyPrerequisiteIds(List<LessonImportRecord> chunk, ImportState state) {
+        Set<Long> unseen = new HashSet<>();
+        chunk.stream()
+                .filter(lesson -> lesson.prerequisiteIds() != null)
+                .flatMap(lesson -> lesson.prerequisiteIds().stream())
+                .filter(id -> !state.verifiedLessonIds.contains(id))
+                .forEach(unseen::add);
+        if (unseen.isEmpty()) {
+            return;
+        }
+
+        List<Long> existing = lessonRepository.findExistingIds(unseen);
+        unseen.removeAll(existing);
+        if (!unseen.isEmpty()) {
+            throw new EntityNotFoundException(
+                    LessonServiceImpl.PREREQUISITE_NOT_FOUND_MESSAGE + unseen.iterator().next());
+        }
+        state.verifiedLessonIds.addAll(existing);
+    }
+
+    private void validateRequiredFields(LessonImportRecord lesson, int line) {
+        if (lesson.title() == null || lesson.title().isBlank()) {
+            throw new IllegalArgumentException(LINE_PREFIX + line + ": title is required");
+        }
+        if (lesson.type() == null || lesson.level() == null) {
+            throw new IllegalArgumentException(LINE_PREFIX + line + ": lesson type and level are required");
+        }
+        if (lesson.moduleId() == null) {
+            throw new IllegalArgumentException(LINE_PREFIX + line + ": module ID is required");
+        }
+    }
+
+    private Integer assignSequence(LessonImportRecord lesson, int line, ImportState state) {
+        NavigableSet<Integer> sequences = state.sequencesByModule.get(lesson.moduleId());
+        Integer sequence = lesson.sequence();
+        if (sequence == null) {
+            sequence = sequences.isEmpty() ?
+                    LessonServiceImpl.SEQUENCE_GAP : sequences.last() + LessonServiceImpl.SEQUENCE_GAP;
+        }
+        if (!sequences.add(sequence)) {
+            throw new IllegalArgumentException(LINE_PREFIX + line + ": " + LessonServiceImpl.ERROR_SEQUENCE_EXISTS);
+        }
+        return sequence;
+    }
+
+    private Set<Long> resolvePrerequisites(LessonImportRecord lesson, int line, ImportState state) {
+        Set<Long> prerequisiteIds = new HashSet<>();
+        if (lesson.prerequisiteIds() != null) {
+            prerequisiteIds.addAll(lesson.prerequisiteIds());
+        }
+        if (lesson.prerequisiteKeys() != null) {
+            for (String key : lesson.prerequisiteKeys()) {
+                Long id = state.idsByKey.get(key);
+                if (id == null) {
+                    throw new IllegalArgumentException(LINE_PREFIX + line +
+                            ": prerequisite key must reference an earlier record: " + key);
+                }
+                prerequisiteIds.add(id);
+            }
+        }
+        return prerequisiteIds;
+    }
+
+    private static final class ImportState {
+        private final Map<Long, NavigableSet<Integer>> sequencesByModule = new HashMap<>();
+        private final Map<String, Long> idsByKey = new HashMap<>();
+        private final Set<Long> verifiedLessonIds = new HashSet<>();
+        private final Map<Long, Set<Long>> prerequisiteIdsByLesson = new LinkedHashMap<>();
+        private int imported;
+    }
+}
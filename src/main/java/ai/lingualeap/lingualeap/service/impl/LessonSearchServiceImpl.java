@@ -0,0 +1,58 @@
+package ai.lingualeap.lingualeap.service.impl;
+
+import ai.lingualeap.lingualeap.dao.repository.jdbc.LessonSearchJdbcRepository;
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonStatus;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.response.LessonSearchResultResponse;
+import ai.lingualeap.lingualeap.service.LessonSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class LessonSearchServiceImpl implements LessonSearchService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final List<String> DEFAULT_CONFIGS = List.of("simple");
+
+    private final LessonSearchJdbcRepository lessonSearchJdbcRepository;
+
+    @Override
+    public Slice<LessonSearchResultResponse> search(String text,
+                                                    LessonType type,
+                                                    LessonLevel level,
+                                                    LessonStatus status,
+                                                    Long moduleId,
+                                                    Pageable pageable) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Search text is required");
+        }
+        if (text.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search text cannot be longer than " + MAX_QUERY_LENGTH);
+        }
+        if (pageable.getPageSize() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size cannot be greater than " + MAX_PAGE_SIZE);
+        }
+        log.debug("Full-text lesson search for '{}' with type: {}, level: {}, status: {}, moduleId: {}",
+                text, type, level, status, moduleId);
+
+        List<String> configs = lessonSearchJdbcRepository.findConfigsInUse();
+        List<LessonSearchResultResponse> rows = lessonSearchJdbcRepository.search(text.trim(),
+                configs.isEmpty() ? DEFAULT_CONFIGS : configs, type, level, status, moduleId,
+                pageable.getOffset(), pageable.getPageSize() + 1);
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+}
@@ -4,27 +4,54 @@ import ai.lingualeap.lingualeap.dao.entity.Lesson;
 import ai.lingualeap.lingualeap.dao.entity.Module;
 import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
 import ai.lingualeap.lingualeap.dao.repository.ModuleRepository;
-import ai.lingualeap.lingualeap.dao.repository.UserProgressRepository;
-import ai.lingualeap.lingualeap.dao.repository.specification.LessonSpecifications;
+import ai.lingualeap.lingualeap.dao.repository.projection.LessonSummary;
 import ai.lingualeap.lingualeap.model.enums.CompletionStatus;
+import ai.lingualeap.lingualeap.model.enums.LessonField;
 import ai.lingualeap.lingualeap.model.enums.LessonLevel;
 import ai.lingualeap.lingualeap.model.enums.LessonStatus;
 import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.enums.PrerequisiteView;
 import ai.lingualeap.lingualeap.model.request.LessonCreateRequest;
+import ai.lingualeap.lingualeap.model.request.LessonMoveRequest;
 import ai.lingualeap.lingualeap.model.request.LessonUpdateRequest;
+import ai.lingualeap.lingualeap.model.response.CursorPage;
+import ai.lingualeap.lingualeap.model.response.LessonAvailabilityResponse;
 import ai.lingualeap.lingualeap.model.response.LessonResponse;
+import ai.lingualeap.lingualeap.model.response.LessonSummaryResponse;
 import ai.lingualeap.lingualeap.service.LessonService;
+import ai.lingualeap.lingualeap.service.cache.CatalogCache;
+import ai.lingualeap.lingualeap.service.cache.ModuleSnapshot;
+import ai.lingualeap.lingualeap.service.cache.ModuleSnapshotCache;
+import ai.lingualeap.lingualeap.service.cache.Versioned;
+import ai.lingualeap.lingualeap.service.event.LessonChangedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonDeletedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonsReorderedEvent;
+import ai.lingualeap.lingualeap.service.graph.LessonGraph;
+import ai.lingualeap.lingualeap.service.graph.PrerequisiteClosure;
 import ai.lingualeap.lingualeap.service.mapper.LessonMapper;
+import ai.lingualeap.lingualeap.service.mapper.LessonSummaryAssembler;
+import ai.lingualeap.lingualeap.service.mapper.PrerequisiteRenderer;
+import ai.lingualeap.lingualeap.service.pagination.KeysetCursor;
+import ai.lingualeap.lingualeap.service.retry.OptimisticLockRetry;
+import ai.lingualeap.lingualeap.service.progress.CompletionBitmapCache;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -38,12 +65,25 @@ import java.util.stream.Collectors;
 public class LessonServiceImpl implements LessonService {
 
     public static final String ERROR_SEQUENCE_EXISTS = "Sequence already exists in this module";
+    // Distance between consecutive sequences after appending or renumbering, leaving room for ten halvings
+    public static final int SEQUENCE_GAP = 1024;
     public static final String PREREQUISITE_NOT_FOUND_MESSAGE = "Prerequisite lesson not found with id: ";
     public static final String LESSON_NOT_FOUND_MESSAGE = "Lesson not found with id: ";
+    public static final String ERROR_CIRCULAR_DEPENDENCY =
+            "Adding this prerequisite would create a circular dependency";
+    private static final int MAX_PAGE_SIZE = 100;
     private final LessonRepository lessonRepository;
     private final ModuleRepository moduleRepository;
-    private final UserProgressRepository userProgressRepository;
+    private final CompletionBitmapCache completionBitmapCache;
     private final LessonMapper lessonMapper;
+    private final LessonSummaryAssembler lessonSummaryAssembler;
+    private final PrerequisiteRenderer prerequisiteRenderer;
+    private final CatalogCache catalogCache;
+    private final ModuleSnapshotCache moduleSnapshotCache;
+    private final LessonGraph lessonGraph;
+    private final PrerequisiteClosure prerequisiteClosure;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     @Override
     @Transactional
@@ -53,13 +93,13 @@ public class LessonServiceImpl implements LessonService {
         Module module = moduleRepository.findById(request.moduleId())
                 .orElseThrow(() -> new EntityNotFoundException("Module not found with id: " + request.moduleId()));
 
-        if (request.sequence() != null &&
-                lessonRepository.existsByModuleIdAndSequence(module.getId(), request.sequence())) {
-            throw new IllegalArgumentException(ERROR_SEQUENCE_EXISTS);
-        }
-
         Lesson lesson = lessonMapper.toEntity(request);
         lesson.setModule(module);
+        if (lesson.getSequence() == null) {
+            moduleRepository.lockExistingIds(List.of(module.getId()));
+            Integer last = lessonRepository.findMaxSequenceByModuleId(module.getId());
+            lesson.setSequence(last == null ? SEQUENCE_GAP : last + SEQUENCE_GAP);
+        }
 
         if (request.prerequisiteIds() != null && !request.prerequisiteIds().isEmpty()) {
             Set<Lesson> prerequisites = request.prerequisiteIds().stream()
@@ -69,77 +109,106 @@ public class LessonServiceImpl implements LessonService {
             lesson.setPrerequisites(prerequisites);
         }
 
-        lesson = lessonRepository.save(lesson);
+        lesson = saveWithUniqueSequence(lesson);
+        prerequisiteClosure.onLessonCreated(lesson.getId(), prerequisiteIdsOf(lesson));
         log.info("Created new lesson with id: {}", lesson.getId());
+        eventPublisher.publishEvent(new LessonChangedEvent(lesson.getId(), module.getId(), prerequisiteIdsOf(lesson)));
 
-        return lessonMapper.toResponse(lesson);
+        return prerequisiteRenderer.render(lessonMapper.toResponse(lesson), lesson);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public LessonResponse updateLesson(Long id, LessonUpdateRequest request) {
-        log.debug("Updating lesson with id: {}", id);
-
-        Lesson lesson = lessonRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + id));
+        return optimisticLockRetry.execute("lesson.update", () -> {
+            log.debug("Updating lesson with id: {}", id);
+
+            Lesson lesson = lessonRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + id));
+
+            lessonMapper.updateEntityFromRequest(request, lesson);
+
+            if (request.prerequisiteIds() != null) {
+                request.prerequisiteIds().forEach(prereqId -> checkCircularDependency(id, prereqId));
+                Set<Lesson> prerequisites = request.prerequisiteIds().stream()
+                        .map(prereqId -> lessonRepository.findById(prereqId)
+                                .orElseThrow(() ->
+                                        new EntityNotFoundException(PREREQUISITE_NOT_FOUND_MESSAGE + prereqId)))
+                        .collect(Collectors.toSet());
+                lesson.setPrerequisites(prerequisites);
+            }
 
-        if (request.sequence() != null &&
-                !request.sequence().equals(lesson.getSequence()) &&
-                lessonRepository.existsByModuleIdAndSequence(lesson.getModule().getId(), request.sequence())) {
-            throw new IllegalArgumentException(ERROR_SEQUENCE_EXISTS);
-        }
+            lesson = saveWithUniqueSequence(lesson);
+            if (request.prerequisiteIds() != null) {
+                prerequisiteClosure.onPrerequisitesChanged(lesson.getId());
+            }
+            log.info("Updated lesson with id: {}", lesson.getId());
+            eventPublisher.publishEvent(new LessonChangedEvent(lesson.getId(), lesson.getModule().getId(),
+                    request.prerequisiteIds() != null ? prerequisiteIdsOf(lesson) : null));
 
-        lessonMapper.updateEntityFromRequest(request, lesson);
+            return prerequisiteRenderer.render(lessonMapper.toResponse(lesson), lesson);
+        });
+    }
 
-        if (request.prerequisiteIds() != null) {
-            Set<Lesson> prerequisites = request.prerequisiteIds().stream()
-                    .map(prereqId -> lessonRepository.findById(prereqId)
-                            .orElseThrow(() -> new EntityNotFoundException(PREREQUISITE_NOT_FOUND_MESSAGE + prereqId)))
-                    .collect(Collectors.toSet());
-            lesson.setPrerequisites(prerequisites);
-        }
+    @Override
+    public LessonResponse getLessonById(Long id) {
+        return getLessonById(id, null, null);
+    }
 
-        lesson = lessonRepository.save(lesson);
-        log.info("Updated lesson with id: {}", lesson.getId());
+    @Override
+    public LessonResponse getLessonById(Long id, PrerequisiteView view, Integer depth) {
+        log.debug("Getting lesson by id: {}, prerequisites: {}, depth: {}", id, view, depth);
+        return prerequisiteRenderer.render(catalogCache.getLesson(id, this::loadLesson).value(), view, depth);
+    }
 
-        return lessonMapper.toResponse(lesson);
+    @Override
+    public String getLessonETag(Long id, PrerequisiteView view, Integer depth) {
+        String versions = catalogCache.getLesson(id, this::loadLesson).versions();
+        Set<Long> prerequisiteIds = prerequisiteRenderer.renderedIds(id, view, depth);
+        String prerequisiteVersions = prerequisiteIds.isEmpty() ? null :
+                lessonRepository.findVersionsByIds(prerequisiteIds);
+        return eTag(versions, prerequisiteVersions, view, depth);
     }
 
     @Override
-    public LessonResponse getLessonById(Long id) {
-        log.debug("Getting lesson by id: {}", id);
-        return lessonRepository.findById(id)
-                .map(lessonMapper::toResponse)
-                .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + id));
+    public Page<LessonSummaryResponse> searchLessons(LessonType type,
+                                                     LessonLevel level,
+                                                     LessonStatus status,
+                                                     Long moduleId,
+                                                     Set<LessonField> fields,
+                                                     Pageable pageable) {
+        log.debug("Searching lessons with type: {}, level: {}, status: {}, moduleId: {}, fields: {}",
+                type, level, status, moduleId, fields);
+
+        Page<LessonSummary> page = lessonRepository.searchSummaries(type, level, status, moduleId, pageable);
+        return new PageImpl<>(lessonSummaryAssembler.toResponses(page.getContent(), fields),
+                pageable, page.getTotalElements());
     }
 
     @Override
-    public Page<LessonResponse> searchLessons(LessonType type,
-                                              LessonLevel level,
-                                              LessonStatus status,
-                                              Long moduleId,
-                                              Pageable pageable) {
-        log.debug("Searching lessons with type: {}, level: {}, status: {}, moduleId: {}",
-                type, level, status, moduleId);
-
-        Specification<Lesson> spec = Specification.where(null);
-
-        if (type != null) {
-            spec = spec.and(LessonSpecifications.hasType(type));
-        }
-        if (level != null) {
-            spec = spec.and(LessonSpecifications.hasLevel(level));
+    public CursorPage<LessonSummaryResponse> scrollLessons(LessonType type,
+                                                           LessonLevel level,
+                                                           LessonStatus status,
+                                                           Long moduleId,
+                                                           Set<LessonField> fields,
+                                                           String cursor,
+                                                           int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
         }
-        if (status != null) {
-            spec = spec.and(LessonSpecifications.hasStatus(status));
-        }
-        if (moduleId != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.get("module").get("id"), moduleId));
-        }
-
-        return lessonRepository.findAll(spec, pageable)
-                .map(lessonMapper::toResponse);
+        KeysetCursor.Position<Integer> after = cursor == null ? null : KeysetCursor.decode(cursor, Integer::valueOf);
+        log.debug("Scrolling lessons with type: {}, level: {}, status: {}, moduleId: {}, after: {}",
+                type, level, status, moduleId, after);
+
+        List<LessonSummary> rows = lessonRepository.findSummariesAfter(type, level, status, moduleId,
+                after == null ? null : after.sortKey(),
+                after == null ? null : after.id(),
+                Limit.of(size + 1));
+        boolean hasNext = rows.size() > size;
+        List<LessonSummary> slice = hasNext ? rows.subList(0, size) : rows;
+        LessonSummary last = slice.isEmpty() ? null : slice.get(slice.size() - 1);
+        String nextCursor = hasNext ? KeysetCursor.encode(last.sequence(), last.id()) : null;
+        return new CursorPage<>(lessonSummaryAssembler.toResponses(slice, fields), size, hasNext, nextCursor);
     }
 
     @Override
@@ -150,141 +219,286 @@ public class LessonServiceImpl implements LessonService {
         Lesson lesson = lessonRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + id));
 
-        List<Lesson> dependentLessons = lessonRepository.findByPrerequisitesContaining(lesson);
-        if (!dependentLessons.isEmpty()) {
+        if (prerequisiteClosure.hasDependents(id)) {
             throw new IllegalStateException("Lesson cannot be deleted as it is prerequisite for other lessons");
         }
 
+        Long moduleId = lesson.getModule().getId();
+        prerequisiteClosure.onLessonDeleted(id);
         lessonRepository.delete(lesson);
         log.info("Deleted lesson with id: {}", id);
+        eventPublisher.publishEvent(new LessonDeletedEvent(id, moduleId));
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public LessonResponse updateLessonStatus(Long id, LessonStatus status) {
-        log.debug("Updating lesson status. Id: {}, new status: {}", id, status);
+        return optimisticLockRetry.execute("lesson.update-status", () -> {
+            log.debug("Updating lesson status. Id: {}, new status: {}", id, status);
 
-        Lesson lesson = lessonRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + id));
+            Lesson lesson = lessonRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + id));
 
-        lesson.setStatus(status);
-        lesson = lessonRepository.save(lesson);
+            lesson.setStatus(status);
+            lesson = lessonRepository.save(lesson);
+            eventPublisher.publishEvent(new LessonChangedEvent(id, lesson.getModule().getId(), null));
 
-        log.info("Updated lesson status. Id: {}, status: {}", id, status);
-        return lessonMapper.toResponse(lesson);
+            log.info("Updated lesson status. Id: {}, status: {}", id, status);
+            return prerequisiteRenderer.render(lessonMapper.toResponse(lesson), lesson);
+        });
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void reorderLessons(Long moduleId, Map<Long, Integer> lessonSequences) {
-        log.debug("Reordering lessons for module: {}", moduleId);
+        optimisticLockRetry.run("lesson.reorder", () -> {
+            log.debug("Reordering lessons for module: {}", moduleId);
 
-        if (lessonSequences.values().size() != new HashSet<>(lessonSequences.values()).size()) {
-            throw new IllegalArgumentException("Duplicate sequence numbers are not allowed");
-        }
+            if (lessonSequences.values().size() != new HashSet<>(lessonSequences.values()).size()) {
+                throw new IllegalArgumentException("Duplicate sequence numbers are not allowed");
+            }
 
-        List<Lesson> lessons = lessonRepository.findByModuleIdOrderBySequenceAsc(moduleId);
-        lessons.forEach(lesson -> {
-            Integer newSequence = lessonSequences.get(lesson.getId());
-            if (newSequence != null) {
-                lesson.setSequence(newSequence);
+            List<Lesson> lessons = lessonRepository.findByModuleIdAndIdIn(moduleId, lessonSequences.keySet());
+            // Swapping sequences passes through duplicates, so uniqueness is checked once every row is written
+            lessonRepository.deferSequenceConstraint();
+            lessons.forEach(lesson -> lesson.setSequence(lessonSequences.get(lesson.getId())));
+            lessonRepository.saveAll(lessons);
+            try {
+                lessonRepository.checkSequenceConstraint();
+            } catch (DataIntegrityViolationException e) {
+                throw sequenceConflict(e);
             }
+
+            eventPublisher.publishEvent(new LessonsReorderedEvent(moduleId, Set.copyOf(lessonSequences.keySet())));
+            log.info("Reordered lessons for module: {}", moduleId);
         });
+    }
 
-        lessonRepository.saveAll(lessons);
-        log.info("Reordered lessons for module: {}", moduleId);
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public LessonResponse moveLesson(Long id, LessonMoveRequest request) {
+        return optimisticLockRetry.execute("lesson.move", () -> {
+            log.debug("Moving lesson {} before {} / after {}", id, request.beforeLessonId(), request.afterLessonId());
+
+            boolean before = request.beforeLessonId() != null;
+            if (before == (request.afterLessonId() != null)) {
+                throw new IllegalArgumentException("Exactly one of beforeLessonId and afterLessonId is required");
+            }
+            Long anchorId = before ? request.beforeLessonId() : request.afterLessonId();
+            if (id.equals(anchorId)) {
+                throw new IllegalArgumentException("Lesson cannot be moved relative to itself");
+            }
+
+            Lesson lesson = lessonRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + id));
+            Long moduleId = lesson.getModule().getId();
+
+            Set<Long> movedIds = Set.of(id);
+            Integer sequence = freeSequence(moduleId, id, anchorId, before);
+            if (sequence == null) {
+                int renumbered = lessonRepository.rebalanceSequences(moduleId, SEQUENCE_GAP);
+                log.info("Renumbered {} lessons of module {} after running out of sequence gaps", renumbered, moduleId);
+                movedIds = Set.copyOf(lessonRepository.findIdsByModuleId(moduleId));
+                sequence = freeSequence(moduleId, id, anchorId, before);
+                // The rebalance cleared the persistence context and bumped every version
+                lesson = lessonRepository.findById(id)
+                        .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + id));
+            }
+
+            lesson.setSequence(sequence);
+            lesson = saveWithUniqueSequence(lesson);
+            eventPublisher.publishEvent(new LessonsReorderedEvent(moduleId, movedIds));
+            log.info("Moved lesson {} to sequence {} in module {}", id, sequence, moduleId);
+
+            return prerequisiteRenderer.render(lessonMapper.toResponse(lesson), lesson);
+        });
     }
 
     @Override
-    public List<LessonResponse> getLessonsByModuleId(Long moduleId) {
-        log.debug("Getting lessons by module id: {}", moduleId);
-        return lessonMapper.toResponseList(
-                lessonRepository.findByModuleIdOrderBySequenceAsc(moduleId)
-        );
+    public List<LessonSummaryResponse> getLessonsByModuleId(Long moduleId, Set<LessonField> fields) {
+        log.debug("Getting lessons by module id: {}, fields: {}", moduleId, fields);
+        return catalogCache.getModuleLessons(moduleId, fields, () -> loadModuleLessons(moduleId, fields)).value();
     }
 
     @Override
-    @Transactional
+    public String getLessonsByModuleETag(Long moduleId, Set<LessonField> fields) {
+        String versions = catalogCache.getModuleLessons(moduleId, fields, () -> loadModuleLessons(moduleId, fields))
+                .versions();
+        return eTag(versions, fields);
+    }
+
+    @Override
+    public ModuleSnapshot getPublishedLessonsSnapshot(Long moduleId) {
+        return moduleSnapshotCache.get(moduleId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void addPrerequisite(Long lessonId, Long prerequisiteId) {
-        log.debug("Adding prerequisite {} to lesson {}", prerequisiteId, lessonId);
+        optimisticLockRetry.run("lesson.add-prerequisite", () -> {
+            log.debug("Adding prerequisite {} to lesson {}", prerequisiteId, lessonId);
 
-        if (lessonId.equals(prerequisiteId)) {
-            throw new IllegalArgumentException("Lesson cannot be prerequisite of itself");
-        }
+            if (lessonId.equals(prerequisiteId)) {
+                throw new IllegalArgumentException("Lesson cannot be prerequisite of itself");
+            }
 
-        Lesson lesson = lessonRepository.findById(lessonId)
-                .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + lessonId));
+            Lesson lesson = lessonRepository.findById(lessonId)
+                    .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + lessonId));
 
-        Lesson prerequisite = lessonRepository.findById(prerequisiteId)
-                .orElseThrow(() -> new EntityNotFoundException(PREREQUISITE_NOT_FOUND_MESSAGE + prerequisiteId));
+            Lesson prerequisite = lessonRepository.findById(prerequisiteId)
+                    .orElseThrow(() -> new EntityNotFoundException(PREREQUISITE_NOT_FOUND_MESSAGE + prerequisiteId));
 
-        if (isCircularDependency(prerequisite, lesson)) {
-            throw new IllegalArgumentException("Adding this prerequisite would create a circular dependency");
-        }
+            checkCircularDependency(lessonId, prerequisiteId);
 
-        lesson.getPrerequisites().add(prerequisite);
-        lessonRepository.save(lesson);
+            lesson.getPrerequisites().add(prerequisite);
+            lessonRepository.save(lesson);
+            prerequisiteClosure.onPrerequisiteAdded(lessonId, prerequisiteId);
+            eventPublisher.publishEvent(
+                    new LessonChangedEvent(lessonId, lesson.getModule().getId(), prerequisiteIdsOf(lesson)));
 
-        log.info("Added prerequisite {} to lesson {}", prerequisiteId, lessonId);
+            log.info("Added prerequisite {} to lesson {}", prerequisiteId, lessonId);
+        });
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removePrerequisite(Long lessonId, Long prerequisiteId) {
-        log.debug("Removing prerequisite {} from lesson {}", prerequisiteId, lessonId);
+        optimisticLockRetry.run("lesson.remove-prerequisite", () -> {
+            log.debug("Removing prerequisite {} from lesson {}", prerequisiteId, lessonId);
 
-        Lesson lesson = lessonRepository.findById(lessonId)
-                .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + lessonId));
+            Lesson lesson = lessonRepository.findById(lessonId)
+                    .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + lessonId));
 
-        lesson.getPrerequisites().removeIf(p -> p.getId().equals(prerequisiteId));
-        lessonRepository.save(lesson);
+            lesson.getPrerequisites().removeIf(p -> p.getId().equals(prerequisiteId));
+            lessonRepository.save(lesson);
+            prerequisiteClosure.onPrerequisitesChanged(lessonId);
+            eventPublisher.publishEvent(
+                    new LessonChangedEvent(lessonId, lesson.getModule().getId(), prerequisiteIdsOf(lesson)));
 
-        log.info("Removed prerequisite {} from lesson {}", prerequisiteId, lessonId);
+            log.info("Removed prerequisite {} from lesson {}", prerequisiteId, lessonId);
+        });
     }
 
     @Override
     public boolean isLessonCompletedByUser(Long lessonId, Long userId) {
-        return userProgressRepository.findByUserIdAndLessonId(userId, lessonId)
-                .map(progress -> CompletionStatus.COMPLETED.equals(progress.getStatus()))
-                .orElse(false);
+        return completionBitmapCache.isCompleted(userId, lessonId);
     }
 
     @Override
     public List<LessonResponse> getAvailableLessonsForUser(Long userId, Long moduleId) {
         log.debug("Getting available lessons for user {} in module {}", userId, moduleId);
 
-        List<Lesson> moduleLessons = lessonRepository.findByModuleIdOrderBySequenceAsc(moduleId);
+        List<Lesson> moduleLessons = lessonRepository.findWithModuleByModuleIdOrderBySequenceAsc(moduleId);
         List<Lesson> availableLessons = new ArrayList<>();
+        RoaringBitmap completedLessons = completionBitmapCache.getCompletedLessons(userId);
 
         for (Lesson lesson : moduleLessons) {
-            if (isLessonAvailableForUser(lesson, userId)) {
+            if (isAvailable(lesson, userId, completedLessons)) {
                 availableLessons.add(lesson);
             }
         }
 
-        return lessonMapper.toResponseList(availableLessons);
+        return prerequisiteRenderer.renderAll(lessonMapper.toResponseList(availableLessons), availableLessons);
     }
 
-    private boolean isLessonAvailableForUser(Lesson lesson, Long userId) {
+    @Override
+    public List<LessonAvailabilityResponse> getLessonAvailabilityForCourse(Long userId, Long courseId) {
+        log.debug("Getting lesson availability for user {} in course {}", userId, courseId);
+        return lessonRepository.findAvailabilityByCourseIdForUser(courseId, userId).stream()
+                .map(view -> new LessonAvailabilityResponse(
+                        view.getLessonId(),
+                        view.getModuleId(),
+                        CompletionStatus.valueOf(view.getProgressStatus()),
+                        Boolean.TRUE.equals(view.getAvailable())
+                ))
+                .toList();
+    }
+
+    // A lesson committed on another node is unknown here until the next graph refresh; read its edges instead
+    private boolean isAvailable(Lesson lesson, Long userId, RoaringBitmap completedLessons) {
+        if (lessonGraph.denseIndex(lesson.getId()) != LessonGraph.UNKNOWN_LESSON) {
+            return lessonGraph.allPrerequisitesMatch(lesson.getId(), completedLessons::contains);
+        }
+        return lesson.getPrerequisites() == null || lesson.getPrerequisites().stream()
+                .allMatch(prerequisite -> completionBitmapCache.isCompleted(userId, prerequisite.getId()));
+    }
+
+    private void checkCircularDependency(Long lessonId, Long prerequisiteId) {
+        if (prerequisiteClosure.wouldCreateCycle(lessonId, prerequisiteId)) {
+            throw new IllegalArgumentException(ERROR_CIRCULAR_DEPENDENCY);
+        }
+    }
+
+    // Versions are read first, so a concurrent commit can only leave the fingerprint older than the body
+    private Versioned<LessonResponse> loadLesson(Long id) {
+        String versions = lessonRepository.findVersionsById(id)
+                .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + id));
+        Lesson lesson = lessonRepository.findDetailById(id)
+                .orElseThrow(() -> new EntityNotFoundException(LESSON_NOT_FOUND_MESSAGE + id));
+        LessonResponse response = prerequisiteRenderer.withPrerequisiteIds(lessonMapper.toResponse(lesson), lesson);
+        return new Versioned<>(versions, response);
+    }
+
+    private Versioned<List<LessonSummaryResponse>> loadModuleLessons(Long moduleId, Set<LessonField> fields) {
+        String versions = lessonRepository.findVersionsByModuleId(moduleId, fields.contains(LessonField.EXERCISES))
+                .orElse(null);
+        List<LessonSummaryResponse> lessons = lessonSummaryAssembler.toResponses(
+                lessonRepository.findSummariesByModuleId(moduleId), fields);
+        return new Versioned<>(versions, List.copyOf(lessons));
+    }
+
+    private Set<Long> prerequisiteIdsOf(Lesson lesson) {
+        if (lesson.getPrerequisites() == null) {
+            return Set.of();
+        }
         return lesson.getPrerequisites().stream()
-                .allMatch(prerequisite -> isLessonCompletedByUser(prerequisite.getId(), userId));
+                .map(Lesson::getId)
+                .collect(Collectors.toSet());
     }
 
-    private boolean isCircularDependency(Lesson potentialPrerequisite, Lesson targetLesson) {
-        Set<Long> visited = new HashSet<>();
-        return checkCircularDependency(potentialPrerequisite, targetLesson, visited);
+    // Strong validator over the version columns that feed a representation plus the parameters that shape it
+    private static String eTag(Object... parts) {
+        return DigestUtils.md5DigestAsHex(Arrays.toString(parts).getBytes(StandardCharsets.UTF_8));
     }
 
-    private boolean checkCircularDependency(Lesson current, Lesson target, Set<Long> visited) {
-        if (current.getId().equals(target.getId())) {
-            return true;
+    /**
+     * Returns the midpoint of the gap the lesson should move into, or {@code null} when the neighbouring
+     * sequences are adjacent and the module needs renumbering first.
+     */
+    private Integer freeSequence(Long moduleId, Long lessonId, Long anchorId, boolean before) {
+        Integer anchor = lessonRepository.findSequenceByIdAndModuleId(anchorId, moduleId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Anchor lesson " + anchorId + " not found in module " + moduleId));
+        long lower;
+        long upper;
+        if (before) {
+            Integer previous = lessonRepository.findPreviousSequence(moduleId, anchor, lessonId);
+            lower = previous == null ? 0 : previous;
+            upper = anchor;
+        } else {
+            Integer next = lessonRepository.findNextSequence(moduleId, anchor, lessonId);
+            lower = anchor;
+            upper = next == null ? (long) anchor + 2 * SEQUENCE_GAP : next;
         }
+        long midpoint = lower + (upper - lower) / 2;
+        return upper - lower < 2 || midpoint > Integer.MAX_VALUE ? null : (int) midpoint;
+    }
 
-        if (!visited.add(current.getId())) {
-            return false;
+    private Lesson saveWithUniqueSequence(Lesson lesson) {
+        try {
+            Lesson saved = lessonRepository.save(lesson);
+            lessonRepository.flush();
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw sequenceConflict(e);
         }
+    }
 
-        return current.getPrerequisites().stream()
-                .anyMatch(prerequisite -> checkCircularDependency(prerequisite, target, visited));
+    private static RuntimeException sequenceConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        if (message != null && message.contains(Lesson.SEQUENCE_CONSTRAINT)) {
+            return new IllegalArgumentException(ERROR_SEQUENCE_EXISTS, e);
+        }
+        return e;
     }
 }
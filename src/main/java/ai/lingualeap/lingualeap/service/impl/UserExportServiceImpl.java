@@ -0,0 +1,52 @@
+package ai.lingualeap.lingualeap.service.impl;
+
+import ai.lingualeap.lingualeap.dao.repository.jdbc.UserExportJdbcRepository;
+import ai.lingualeap.lingualeap.model.enums.ExportFormat;
+import ai.lingualeap.lingualeap.model.enums.UserStatus;
+import ai.lingualeap.lingualeap.service.UserExportService;
+import ai.lingualeap.lingualeap.service.export.UserRowWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+public class UserExportServiceImpl implements UserExportService {
+
+    private final UserExportJdbcRepository userExportRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public UserExportServiceImpl(UserExportJdbcRepository userExportRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.userExportRepository = userExportRepository;
+        // The export runs on the async response thread, outside any request transaction; the cursor needs one
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public long exportUsers(UserStatus status,
+                            LocalDateTime createdAtStart,
+                            LocalDateTime createdAtEnd,
+                            ExportFormat format,
+                            OutputStream output) throws IOException {
+        long startedAt = System.nanoTime();
+        UserRowWriter writer = UserRowWriter.create(format, output);
+        try {
+            readOnlyTransaction.executeWithoutResult(transaction ->
+                    userExportRepository.forEach(status, createdAtStart, createdAtEnd, writer));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+        log.info("Exported {} users as {} in {} ms", writer.rowCount(), format,
+                (System.nanoTime() - startedAt) / 1_000_000);
+        return writer.rowCount();
+    }
+}
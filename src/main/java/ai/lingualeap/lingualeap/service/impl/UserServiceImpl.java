@@ -2,21 +2,35 @@ package ai.lingualeap.lingualeap.service.impl;
 
 import ai.lingualeap.lingualeap.dao.entity.User;
 import ai.lingualeap.lingualeap.dao.repository.UserRepository;
+import ai.lingualeap.lingualeap.dao.repository.jdbc.UserStatusJdbcRepository;
 import ai.lingualeap.lingualeap.model.enums.UserStatus;
+import ai.lingualeap.lingualeap.model.request.UserBulkStatusRequest;
 import ai.lingualeap.lingualeap.model.request.UserCreateRequest;
 import ai.lingualeap.lingualeap.model.request.UserUpdateRequest;
+import ai.lingualeap.lingualeap.model.response.CursorPage;
+import ai.lingualeap.lingualeap.model.response.UserBulkStatusResponse;
 import ai.lingualeap.lingualeap.model.response.UserResponse;
 import ai.lingualeap.lingualeap.service.UserService;
+import ai.lingualeap.lingualeap.service.cache.UserIdentifierFilter;
+import ai.lingualeap.lingualeap.service.event.UserTokensRevokedEvent;
+import ai.lingualeap.lingualeap.service.event.UsersStatusChangedEvent;
 import ai.lingualeap.lingualeap.service.mapper.UserMapper;
+import ai.lingualeap.lingualeap.service.pagination.KeysetCursor;
+import ai.lingualeap.lingualeap.service.retry.OptimisticLockRetry;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -24,12 +38,20 @@ import java.time.LocalDateTime;
 public class UserServiceImpl implements UserService {
 
     private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_USERS = 10_000;
+    private static final int EVENT_BATCH_SIZE = 1_000;
     private static final String USERNAME_EXISTS_ERROR_MESSAGE = "Username already exists: ";
     private static final String EMAIL_EXISTS_ERROR_MESSAGE = "Email already exists: ";
+    private static final String USER_NOT_FOUND_MESSAGE = "User not found with id: ";
     private static final String CREATED_AT = "createdAt";
+    private static final String ID = "id";
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserIdentifierFilter userIdentifierFilter;
+    private final UserStatusJdbcRepository userStatusRepository;
 
     @Override
     @Transactional
@@ -43,26 +65,35 @@ public class UserServiceImpl implements UserService {
 
         User user = userMapper.toEntity(request);
         User savedUser = userRepository.save(user);
+        userIdentifierFilter.add(savedUser.getUsername(), savedUser.getEmail());
         return userMapper.toResponse(savedUser);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserResponse updateUser(Long id, UserUpdateRequest request) {
-        User user = getUserEntityById(id);
+        return optimisticLockRetry.execute("user.update", () -> {
+            User user = getUserEntityById(id);
 
-        if (request.getUsername() != null && !request.getUsername().equals(user.getUsername()) &&
-                userRepository.existsByUsername(request.getUsername())) {
-            throw new IllegalArgumentException(USERNAME_EXISTS_ERROR_MESSAGE + request.getUsername());
-        }
+            if (request.getUsername() != null && !request.getUsername().equals(user.getUsername()) &&
+                    userRepository.existsByUsername(request.getUsername())) {
+                throw new IllegalArgumentException(USERNAME_EXISTS_ERROR_MESSAGE + request.getUsername());
+            }
 
-        if (request.getEmail() != null && !request.getEmail().equals(user.getEmail()) &&
-                userRepository.existsByEmail(request.getEmail())) {
-            throw new IllegalArgumentException(EMAIL_EXISTS_ERROR_MESSAGE + request.getEmail());
-        }
+            if (request.getEmail() != null && !request.getEmail().equals(user.getEmail()) &&
+                    userRepository.existsByEmail(request.getEmail())) {
+                throw new IllegalArgumentException(EMAIL_EXISTS_ERROR_MESSAGE + request.getEmail());
+            }
 
-        userMapper.updateEntityFromRequest(request, user);
-        return userMapper.toResponse(user);
+            boolean credentialsChanged = request.getPassword() != null ||
+                    request.getUsername() != null && !request.getUsername().equals(user.getUsername());
+            userMapper.updateEntityFromRequest(request, user);
+            userIdentifierFilter.add(user.getUsername(), user.getEmail());
+            if (credentialsChanged) {
+                revokeIssuedTokens(user);
+            }
+            return userMapper.toResponse(user);
+        });
     }
 
     @Override
@@ -70,6 +101,12 @@ public class UserServiceImpl implements UserService {
         return userMapper.toResponse(getUserEntityById(id));
     }
 
+    @Override
+    public String getUserETag(Long id) {
+        return userRepository.findVersionTagById(id)
+                .orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_MESSAGE + id));
+    }
+
     @Override
     public UserResponse getUserByUsername(String username) {
         return userRepository.findByUsername(username)
@@ -86,49 +123,145 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Page size cannot be greater than " + MAX_PAGE_SIZE);
         }
 
-        Specification<User> spec = Specification.where(null);
-
-        if (status != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
-        }
+        return userRepository.findAll(filter(status, createdAtStart, createdAtEnd), pageable)
+                .map(userMapper::toResponse);
+    }
 
-        if (createdAtStart != null) {
-            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get(CREATED_AT), createdAtStart));
+    @Override
+    public CursorPage<UserResponse> scrollUsers(UserStatus status,
+                                                LocalDateTime createdAtStart,
+                                                LocalDateTime createdAtEnd,
+                                                String cursor,
+                                                int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
         }
 
-        if (createdAtEnd != null) {
-            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get(CREATED_AT), createdAtEnd));
+        Specification<User> spec = filter(status, createdAtStart, createdAtEnd);
+        if (cursor != null) {
+            KeysetCursor.Position<LocalDateTime> position = KeysetCursor.decode(cursor, LocalDateTime::parse);
+            spec = spec.and(after(position.sortKey(), position.id()));
         }
 
-        return userRepository.findAll(spec, pageable).map(userMapper::toResponse);
+        List<User> rows = userRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(CREATED_AT, ID))
+                .limit(size + 1)
+                .all());
+        boolean hasNext = rows.size() > size;
+        List<User> slice = hasNext ? rows.subList(0, size) : rows;
+        User last = slice.isEmpty() ? null : slice.get(slice.size() - 1);
+        String nextCursor = hasNext ? KeysetCursor.encode(last.getCreatedAt(), last.getId()) : null;
+        return new CursorPage<>(slice.stream().map(userMapper::toResponse).toList(), size, hasNext, nextCursor);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void deactivateUser(Long id) {
-        User user = getUserEntityById(id);
-        user.setStatus(UserStatus.INACTIVE);
+        optimisticLockRetry.run("user.deactivate", () -> {
+            User user = getUserEntityById(id);
+            user.setStatus(UserStatus.INACTIVE);
+            revokeIssuedTokens(user);
+        });
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void updateUserStatus(Long id, UserStatus status) {
-        User user = getUserEntityById(id);
-        user.setStatus(status);
+        optimisticLockRetry.run("user.update-status", () -> {
+            User user = getUserEntityById(id);
+            user.setStatus(status);
+            if (status != UserStatus.ACTIVE) {
+                revokeIssuedTokens(user);
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public UserBulkStatusResponse updateUserStatuses(UserBulkStatusRequest request, String actingUsername) {
+        boolean byIds = request.ids() != null && !request.ids().isEmpty();
+        boolean byFilter = request.currentStatus() != null || request.createdAtStart() != null ||
+                request.createdAtEnd() != null;
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Specify either user ids or a filter, not both or neither");
+        }
+
+        // A filter is resolved to ids first, so both paths share the same cap and the same single UPDATE
+        List<Long> ids = byIds ?
+                request.ids() :
+                userStatusRepository.findIdsForStatusChange(request.currentStatus(), request.createdAtStart(),
+                        request.createdAtEnd(), request.status(), actingUsername, MAX_BULK_USERS + 1);
+        if (ids.size() > MAX_BULK_USERS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_USERS + " users can be changed at once; " +
+                    "narrow the filter");
+        }
+
+        LocalDateTime updatedAt = LocalDateTime.now();
+        // Leaving ACTIVE ends every session, as for a single status change
+        Instant tokensNotBefore = request.status() == UserStatus.ACTIVE ? null : Instant.now();
+        List<Long> updated = userStatusRepository.updateStatusByIds(ids, request.status(), updatedAt,
+                tokensNotBefore, actingUsername);
+        for (int from = 0; from < updated.size(); from += EVENT_BATCH_SIZE) {
+            List<Long> batch = List.copyOf(updated.subList(from, Math.min(from + EVENT_BATCH_SIZE, updated.size())));
+            eventPublisher.publishEvent(new UsersStatusChangedEvent(batch, request.status(), tokensNotBefore));
+        }
+        return new UserBulkStatusResponse(request.status(), updated.size());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void revokeTokens(Long id) {
+        optimisticLockRetry.run("user.revoke-tokens", () -> revokeIssuedTokens(getUserEntityById(id)));
     }
 
     @Override
     public boolean existsByUsername(String username) {
-        return userRepository.existsByUsername(username);
+        return userIdentifierFilter.mightContainUsername(username) && userRepository.existsByUsername(username);
     }
 
     @Override
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        return userIdentifierFilter.mightContainEmail(email) && userRepository.existsByEmail(email);
+    }
+
+    private void revokeIssuedTokens(User user) {
+        user.revokeTokens();
+        eventPublisher.publishEvent(new UserTokensRevokedEvent(user.getId(), user.getTokensNotBefore()));
+    }
+
+    private Specification<User> filter(UserStatus status,
+                                       LocalDateTime createdAtStart,
+                                       LocalDateTime createdAtEnd) {
+        Specification<User> spec = Specification.where(null);
+
+        if (status != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+
+        if (createdAtStart != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get(CREATED_AT), createdAtStart));
+        }
+
+        if (createdAtEnd != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get(CREATED_AT), createdAtEnd));
+        }
+
+        return spec;
+    }
+
+    private Specification<User> after(LocalDateTime createdAt, Long id) {
+        // The redundant >= lets Postgres range-scan idx_users_created_at_id before applying the tie-break
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get(CREATED_AT), createdAt),
+                cb.or(
+                        cb.greaterThan(root.get(CREATED_AT), createdAt),
+                        cb.greaterThan(root.get(ID), id)
+                )
+        );
     }
 
     private User getUserEntityById(Long id) {
         return userRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
+                .orElseThrow(() -> new EntityNotFoundException(USER_NOT_FOUND_MESSAGE + id));
     }
 }
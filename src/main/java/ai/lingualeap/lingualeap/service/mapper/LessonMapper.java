@@ -1,9 +1,13 @@
 package ai.lingualeap.lingualeap.service.mapper;
 
+import ai.lingualeap.lingualeap.dao.entity.Exercise;
 import ai.lingualeap.lingualeap.dao.entity.Lesson;
+import ai.lingualeap.lingualeap.dao.entity.Module;
 import ai.lingualeap.lingualeap.model.request.LessonCreateRequest;
 import ai.lingualeap.lingualeap.model.request.LessonUpdateRequest;
+import ai.lingualeap.lingualeap.model.response.ExerciseResponse;
 import ai.lingualeap.lingualeap.model.response.LessonResponse;
+import ai.lingualeap.lingualeap.model.response.ModuleResponse;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -22,10 +26,16 @@ public interface LessonMapper {
     @Mapping(target = "status", constant = "DRAFT")
     Lesson toEntity(LessonCreateRequest request);
 
+    @Mapping(target = "prerequisiteIds", ignore = true)
+    @Mapping(target = "prerequisites", ignore = true)
     LessonResponse toResponse(Lesson lesson);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateEntityFromRequest(LessonUpdateRequest request, @MappingTarget Lesson lesson);
 
     List<LessonResponse> toResponseList(List<Lesson> lessons);
+
+    ModuleResponse toModuleResponse(Module module);
+
+    ExerciseResponse toExerciseResponse(Exercise exercise);
 }
@@ -0,0 +1,135 @@
+package ai.lingualeap.lingualeap.service.mapper;
+
+import ai.lingualeap.lingualeap.dao.entity.Exercise;
+import ai.lingualeap.lingualeap.dao.repository.ExerciseRepository;
+import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
+import ai.lingualeap.lingualeap.dao.repository.ModuleRepository;
+import ai.lingualeap.lingualeap.dao.repository.projection.LessonObjectiveView;
+import ai.lingualeap.lingualeap.dao.repository.projection.LessonSummary;
+import ai.lingualeap.lingualeap.dao.repository.projection.LessonTextView;
+import ai.lingualeap.lingualeap.model.enums.LessonField;
+import ai.lingualeap.lingualeap.model.response.ExerciseResponse;
+import ai.lingualeap.lingualeap.model.response.LessonSummaryResponse;
+import ai.lingualeap.lingualeap.model.response.ModuleResponse;
+import ai.lingualeap.lingualeap.model.vo.LearningObjective;
+import ai.lingualeap.lingualeap.service.graph.LessonGraph;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns {@link LessonSummary} rows into {@link LessonSummaryResponse}s, loading each requested heavy
+ * field with one batched query for the whole page. Fields that were not requested are never read.
+ */
+@Component
+@RequiredArgsConstructor
+public class LessonSummaryAssembler {
+
+    private final LessonRepository lessonRepository;
+    private final ModuleRepository moduleRepository;
+    private final ExerciseRepository exerciseRepository;
+    private final LessonMapper lessonMapper;
+    private final LessonGraph lessonGraph;
+
+    public List<LessonSummaryResponse> toResponses(List<LessonSummary> summaries, Set<LessonField> fields) {
+        if (summaries.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = summaries.stream().map(LessonSummary::id).toList();
+        Map<Long, String> descriptions = fields.contains(LessonField.DESCRIPTION) ?
+                texts(lessonRepository.findDescriptions(ids)) : Map.of();
+        Map<Long, String> theoryContents = fields.contains(LessonField.THEORY_CONTENT) ?
+                texts(lessonRepository.findTheoryContents(ids)) : Map.of();
+        Map<Long, String> aiPromptTemplates = fields.contains(LessonField.AI_PROMPT_TEMPLATE) ?
+                texts(lessonRepository.findAiPromptTemplates(ids)) : Map.of();
+        Map<Long, ModuleResponse> modules = fields.contains(LessonField.MODULE) ?
+                modules(summaries) : Map.of();
+        Map<Long, List<ExerciseResponse>> exercises = fields.contains(LessonField.EXERCISES) ?
+                exercises(ids) : Map.of();
+        Map<Long, Set<LearningObjective>> objectives = fields.contains(LessonField.LEARNING_OBJECTIVES) ?
+                objectives(ids) : Map.of();
+        boolean withPrerequisites = fields.contains(LessonField.PREREQUISITES);
+
+        List<LessonSummaryResponse> responses = new ArrayList<>(summaries.size());
+        for (LessonSummary summary : summaries) {
+            Long id = summary.id();
+            responses.add(new LessonSummaryResponse(
+                    id,
+                    summary.title(),
+                    summary.type(),
+                    summary.level(),
+                    summary.status(),
+                    summary.sequence(),
+                    summary.minRequiredScore(),
+                    summary.recommendedDuration(),
+                    summary.hasAiInteraction(),
+                    summary.moduleId(),
+                    summary.createdAt(),
+                    summary.updatedAt(),
+                    descriptions.get(id),
+                    theoryContents.get(id),
+                    aiPromptTemplates.get(id),
+                    modules.get(summary.moduleId()),
+                    exercisesOf(exercises, fields, id),
+                    withPrerequisites ? Arrays.stream(lessonGraph.getPrerequisiteIds(id)).boxed().toList() : null,
+                    objectivesOf(objectives, fields, id)
+            ));
+        }
+        return responses;
+    }
+
+    private Map<Long, String> texts(List<LessonTextView> rows) {
+        Map<Long, String> texts = new HashMap<>();
+        rows.forEach(row -> texts.put(row.getLessonId(), row.getText()));
+        return texts;
+    }
+
+    private Map<Long, ModuleResponse> modules(List<LessonSummary> summaries) {
+        Set<Long> moduleIds = new HashSet<>();
+        summaries.forEach(summary -> moduleIds.add(summary.moduleId()));
+        Map<Long, ModuleResponse> modules = new HashMap<>();
+        moduleRepository.findWithCourseByIdIn(moduleIds)
+                .forEach(module -> modules.put(module.getId(), lessonMapper.toModuleResponse(module)));
+        return modules;
+    }
+
+    private Map<Long, List<ExerciseResponse>> exercises(Collection<Long> lessonIds) {
+        Map<Long, List<ExerciseResponse>> exercises = new HashMap<>();
+        for (Exercise exercise : exerciseRepository.findByLessonIdInOrderBySequenceAsc(lessonIds)) {
+            exercises.computeIfAbsent(exercise.getLesson().getId(), id -> new ArrayList<>())
+                    .add(lessonMapper.toExerciseResponse(exercise));
+        }
+        return exercises;
+    }
+
+    private Map<Long, Set<LearningObjective>> objectives(Collection<Long> lessonIds) {
+        Map<Long, Set<LearningObjective>> objectives = new HashMap<>();
+        for (LessonObjectiveView row : lessonRepository.findObjectives(lessonIds)) {
+            LearningObjective objective = new LearningObjective();
+            objective.setObjective(row.objective());
+            objective.setDescription(row.description());
+            objective.setRequiredScore(row.requiredScore());
+            objectives.computeIfAbsent(row.lessonId(), id -> new HashSet<>()).add(objective);
+        }
+        return objectives;
+    }
+
+    private static List<ExerciseResponse> exercisesOf(Map<Long, List<ExerciseResponse>> exercises,
+                                                      Set<LessonField> fields, Long lessonId) {
+        return fields.contains(LessonField.EXERCISES) ? exercises.getOrDefault(lessonId, List.of()) : null;
+    }
+
+    private static Set<LearningObjective> objectivesOf(Map<Long, Set<LearningObjective>> objectives,
+                                                       Set<LessonField> fields, Long lessonId) {
+        return fields.contains(LessonField.LEARNING_OBJECTIVES) ? objectives.getOrDefault(lessonId, Set.of()) : null;
+    }
+}
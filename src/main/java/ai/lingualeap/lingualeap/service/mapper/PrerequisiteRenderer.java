@@ -0,0 +1,223 @@
+package ai.lingualeap.lingualeap.service.mapper;
+
+import ai.lingualeap.lingualeap.dao.entity.Lesson;
+import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
+import ai.lingualeap.lingualeap.dao.repository.projection.LessonSummary;
+import ai.lingualeap.lingualeap.model.enums.PrerequisiteView;
+import ai.lingualeap.lingualeap.model.response.LessonResponse;
+import ai.lingualeap.lingualeap.model.response.PrerequisiteResponse;
+import ai.lingualeap.lingualeap.service.graph.LessonGraph;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills {@link LessonResponse#prerequisiteIds()} and, for the summary and tree views, a bounded
+ * {@link PrerequisiteResponse} tree. Levels are assigned breadth-first from the rendered lessons, and an edge
+ * is only expanded when it leads exactly one level deeper, so cycles and diamond shapes terminate. Every
+ * prerequisite is mapped once per response and shared between the parents that reference it.
+ */
+@Component
+public class PrerequisiteRenderer {
+
+    private final LessonRepository lessonRepository;
+    private final LessonGraph lessonGraph;
+    private final PrerequisiteView defaultView;
+    private final int maxDepth;
+
+    public PrerequisiteRenderer(LessonRepository lessonRepository,
+                                LessonGraph lessonGraph,
+                                @Value("${application.lesson.prerequisites.view:IDS}") PrerequisiteView defaultView,
+                                @Value("${application.lesson.prerequisites.max-depth:5}") int maxDepth) {
+        this.lessonRepository = lessonRepository;
+        this.lessonGraph = lessonGraph;
+        this.defaultView = defaultView;
+        this.maxDepth = maxDepth;
+    }
+
+    public LessonResponse render(LessonResponse response, Lesson lesson) {
+        return render(withPrerequisiteIds(response, lesson), null, null);
+    }
+
+    public LessonResponse render(LessonResponse response, PrerequisiteView view, Integer depth) {
+        return renderAll(List.of(response), view, depth).get(0);
+    }
+
+    public List<LessonResponse> renderAll(List<LessonResponse> responses, List<Lesson> lessons) {
+        List<LessonResponse> withIds = new ArrayList<>(responses.size());
+        for (int i = 0; i < responses.size(); i++) {
+            withIds.add(withPrerequisiteIds(responses.get(i), lessons.get(i)));
+        }
+        return renderAll(withIds, null, null);
+    }
+
+    /**
+     * Renders prerequisites for responses whose {@link LessonResponse#prerequisiteIds()} are already filled in,
+     * such as cached ones.
+     */
+    public List<LessonResponse> renderAll(List<LessonResponse> responses, PrerequisiteView view, Integer depth) {
+        int levels = resolveDepth(view == null ? defaultView : view, depth);
+        List<List<Long>> directIds = responses.stream()
+                .map(response -> response.prerequisiteIds() == null ? List.<Long>of() : response.prerequisiteIds())
+                .toList();
+
+        List<LessonResponse> rendered = new ArrayList<>(responses.size());
+        if (levels == 0) {
+            for (int i = 0; i < responses.size(); i++) {
+                rendered.add(responses.get(i).withPrerequisites(directIds.get(i), null));
+            }
+            return rendered;
+        }
+
+        Tree tree = new Tree(levels);
+        tree.visit(responses.stream().map(LessonResponse::id).toList(), directIds);
+        for (int i = 0; i < responses.size(); i++) {
+            rendered.add(responses.get(i).withPrerequisites(directIds.get(i), tree.children(directIds.get(i), 0)));
+        }
+        return rendered;
+    }
+
+    /**
+     * Copies the direct prerequisite ids of the entity into the response. The entity is used rather than the
+     * lesson graph because the graph only reflects committed changes.
+     */
+    public LessonResponse withPrerequisiteIds(LessonResponse response, Lesson lesson) {
+        List<Long> ids = lesson.getPrerequisites() == null ? List.of() : lesson.getPrerequisites().stream()
+                .map(Lesson::getId)
+                .sorted()
+                .toList();
+        return response.withPrerequisites(ids, null);
+    }
+
+    /**
+     * Returns the prerequisites whose summaries would appear when rendering {@code lessonId}, read from the lesson
+     * graph without touching the database. Empty for the ids-only view.
+     */
+    public Set<Long> renderedIds(Long lessonId, PrerequisiteView view, Integer depth) {
+        int levels = resolveDepth(view == null ? defaultView : view, depth);
+        Set<Long> visited = new HashSet<>();
+        List<Long> frontier = List.of(lessonId);
+        for (int level = 0; level < levels && !frontier.isEmpty(); level++) {
+            List<Long> next = new ArrayList<>();
+            for (Long id : frontier) {
+                for (long prerequisiteId : lessonGraph.getPrerequisiteIds(id)) {
+                    if (prerequisiteId != lessonId && visited.add(prerequisiteId)) {
+                        next.add(prerequisiteId);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return visited;
+    }
+
+    private int resolveDepth(PrerequisiteView view, Integer depth) {
+        return switch (view) {
+            case IDS -> 0;
+            case SUMMARY -> 1;
+            case TREE -> {
+                int requested = depth == null ? maxDepth : depth;
+                if (requested < 1 || requested > maxDepth) {
+                    throw new IllegalArgumentException("Prerequisite depth must be between 1 and " + maxDepth);
+                }
+                yield requested;
+            }
+        };
+    }
+
+    private final class Tree {
+        private final int levels;
+        private final Map<Long, Integer> levelById = new HashMap<>();
+        private final Map<Long, List<Long>> childIdsById = new HashMap<>();
+        private final Map<Long, LessonSummary> summaries = new HashMap<>();
+        private final Map<Long, PrerequisiteResponse> expanded = new HashMap<>();
+        private final Map<Long, PrerequisiteResponse> leaves = new HashMap<>();
+
+        private Tree(int levels) {
+            this.levels = levels;
+        }
+
+        private void visit(List<Long> rootIds, List<List<Long>> directIds) {
+            rootIds.forEach(rootId -> levelById.put(rootId, 0));
+
+            Deque<Long> queue = new ArrayDeque<>();
+            for (List<Long> ids : directIds) {
+                for (Long id : ids) {
+                    if (levelById.putIfAbsent(id, 1) == null) {
+                        queue.add(id);
+                    }
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                Long id = queue.poll();
+                int level = levelById.get(id);
+                if (level >= levels) {
+                    continue;
+                }
+                List<Long> childIds = new ArrayList<>();
+                for (long childId : lessonGraph.getPrerequisiteIds(id)) {
+                    childIds.add(childId);
+                    if (levelById.putIfAbsent(childId, level + 1) == null) {
+                        queue.add(childId);
+                    }
+                }
+                childIds.sort(null);
+                childIdsById.put(id, childIds);
+            }
+
+            lessonRepository.findSummariesByIds(levelById.keySet())
+                    .forEach(summary -> summaries.put(summary.id(), summary));
+        }
+
+        private List<PrerequisiteResponse> children(List<Long> childIds, int parentLevel) {
+            List<PrerequisiteResponse> children = new ArrayList<>(childIds.size());
+            for (Long childId : childIds) {
+                PrerequisiteResponse child = levelById.get(childId) == parentLevel + 1 ?
+                        node(childId) : leaf(childId);
+                if (child != null) {
+                    children.add(child);
+                }
+            }
+            return children;
+        }
+
+        private PrerequisiteResponse node(Long id) {
+            PrerequisiteResponse cached = expanded.get(id);
+            if (cached != null) {
+                return cached;
+            }
+            int level = levelById.get(id);
+            if (level >= levels) {
+                return leaf(id);
+            }
+            LessonSummary summary = summaries.get(id);
+            if (summary == null) {
+                return null;
+            }
+            PrerequisiteResponse node = toResponse(summary, children(childIdsById.get(id), level));
+            expanded.put(id, node);
+            return node;
+        }
+
+        private PrerequisiteResponse leaf(Long id) {
+            return leaves.computeIfAbsent(id, key -> {
+                LessonSummary summary = summaries.get(key);
+                return summary == null ? null : toResponse(summary, null);
+            });
+        }
+
+        private PrerequisiteResponse toResponse(LessonSummary summary, List<PrerequisiteResponse> prerequisites) {
+            return new PrerequisiteResponse(summary.id(), summary.title(), summary.type(), summary.level(),
+                    summary.status(), summary.moduleId(), prerequisites);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ai.lingualeap.lingualeap.service.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Opaque continuation token for keyset pagination: the sort key and id of the last row of a slice,
+ * base64url encoded so clients treat it as a black box.
+ */
+public final class KeysetCursor {
+
+    private static final char SEPARATOR = '|';
+    private static final String INVALID_CURSOR_MESSAGE = "Invalid cursor";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Object sortKey, Long id) {
+        String raw = String.valueOf(sortKey) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static <T> Position<T> decode(String cursor, Function<String, T> sortKeyParser) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException(INVALID_CURSOR_MESSAGE);
+            }
+            return new Position<>(sortKeyParser.apply(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR_MESSAGE, e);
+        }
+    }
+
+    public record Position<T>(T sortKey, Long id) {
+    }
+}
@@ -0,0 +1,97 @@
+package ai.lingualeap.lingualeap.service.progress;
+
+import ai.lingualeap.lingualeap.dao.repository.UserProgressRepository;
+import ai.lingualeap.lingualeap.model.enums.CompletionStatus;
+import ai.lingualeap.lingualeap.service.event.UserProgressChangedEvent;
+import ai.lingualeap.lingualeap.service.graph.LessonGraph;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-user bitmap of completed lessons keyed by the dense lesson index of {@link LessonGraph}.
+ * Bitmaps are immutable once published; committed progress changes replace them copy-on-write.
+ * Only this node's commits reach them, so each bitmap is reloaded a short while after it was built to pick up
+ * progress saved on other nodes. Lessons the graph does not know yet are looked up in the database.
+ */
+@Slf4j
+@Component
+public class CompletionBitmapCache {
+
+    private final UserProgressRepository userProgressRepository;
+    private final LessonGraph lessonGraph;
+    private final Cache<Long, RoaringBitmap> bitmaps;
+
+    public CompletionBitmapCache(UserProgressRepository userProgressRepository,
+                                 LessonGraph lessonGraph,
+                                 @Value("${application.cache.completion.max-users:100000}") long maxUsers,
+                                 @Value("${application.cache.completion.expire-after-write:PT1M}") Duration ttl) {
+        this.userProgressRepository = userProgressRepository;
+        this.lessonGraph = lessonGraph;
+        this.bitmaps = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public RoaringBitmap getCompletedLessons(Long userId) {
+        return bitmaps.get(userId, this::load);
+    }
+
+    public boolean isCompleted(Long userId, Long lessonId) {
+        int index = lessonGraph.denseIndex(lessonId);
+        if (index == LessonGraph.UNKNOWN_LESSON) {
+            return userProgressRepository.findByUserIdAndLessonId(userId, lessonId)
+                    .map(progress -> CompletionStatus.COMPLETED.equals(progress.getStatus()))
+                    .orElse(false);
+        }
+        return getCompletedLessons(userId).contains(index);
+    }
+
+    public void invalidate(Long userId) {
+        bitmaps.invalidate(userId);
+    }
+
+    @TransactionalEventListener
+    public void onProgressChanged(UserProgressChangedEvent event) {
+        int index = lessonGraph.denseIndex(event.lessonId());
+        if (index == LessonGraph.UNKNOWN_LESSON) {
+            bitmaps.invalidate(event.userId());
+            return;
+        }
+        bitmaps.asMap().computeIfPresent(event.userId(), (userId, current) -> {
+            if (current.contains(index) == event.completed()) {
+                return current;
+            }
+            RoaringBitmap updated = current.clone();
+            if (event.completed()) {
+                updated.add(index);
+            } else {
+                updated.remove(index);
+            }
+            return updated;
+        });
+    }
+
+    private RoaringBitmap load(Long userId) {
+        RoaringBitmap completed = new RoaringBitmap();
+        List<Long> lessonIds = userProgressRepository.findLessonIdsByUserIdAndStatus(userId,
+                CompletionStatus.COMPLETED);
+        for (Long lessonId : lessonIds) {
+            int index = lessonGraph.denseIndex(lessonId);
+            if (index != LessonGraph.UNKNOWN_LESSON) {
+                completed.add(index);
+            }
+        }
+        completed.runOptimize();
+        log.debug("Loaded completion bitmap for user {} with {} lessons", userId, completed.getCardinality());
+        return completed;
+    }
+}
@@ -0,0 +1,91 @@
+package ai.lingualeap.lingualeap.service.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs an idempotent write in its own transaction and repeats it when a {@code @Version} check fails, so the next
+ * attempt re-reads the rows another transaction just committed. Attempts are bounded and separated by a full-jitter
+ * exponential backoff; once they run out the last {@link OptimisticLockingFailureException} is rethrown and mapped
+ * to 409. Conflicts, retries and exhausted operations are counted per operation to locate hot rows.
+ */
+@Slf4j
+@Component
+public class OptimisticLockRetry {
+
+    private static final String OPERATION_TAG = "operation";
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    public OptimisticLockRetry(TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${application.retry.optimistic-lock.max-attempts:3}") int maxAttempts,
+                               @Value("${application.retry.optimistic-lock.initial-backoff:PT0.02S}")
+                               Duration initialBackoff,
+                               @Value("${application.retry.optimistic-lock.max-backoff:PT0.2S}") Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Optimistic lock retry needs at least one attempt");
+        }
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        // Inside a caller's transaction a retry would only hit the same rollback-only transaction again
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("optimistic.lock.conflicts", OPERATION_TAG, operation).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("optimistic.lock.exhausted", OPERATION_TAG, operation).increment();
+                    log.warn("Giving up on {} after {} optimistic lock conflicts", operation, attempt);
+                    throw e;
+                }
+                meterRegistry.counter("optimistic.lock.retries", OPERATION_TAG, operation).increment();
+                log.debug("Optimistic lock conflict in {} on attempt {}, retrying", operation, attempt);
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private void backOff(int attempt, OptimisticLockingFailureException conflict) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+-- Schema as it stood before versioned migrations. Existing databases are baselined at this version and skip it.
+
+create table courses (
+    id              bigint generated by default as identity primary key,
+    created_at      timestamp(6) not null,
+    updated_at      timestamp(6),
+    version         bigint,
+    title           varchar(255) not null,
+    description     text,
+    target_language varchar(255) not null,
+    source_language varchar(255) not null,
+    level           varchar(255) not null
+);
+
+create table modules (
+    id          bigint generated by default as identity primary key,
+    created_at  timestamp(6) not null,
+    updated_at  timestamp(6),
+    version     bigint,
+    title       varchar(255) not null,
+    description text,
+    sequence    integer not null,
+    course_id   bigint not null references courses (id)
+);
+
+create table lessons (
+    id                   bigint generated by default as identity primary key,
+    created_at           timestamp(6) not null,
+    updated_at           timestamp(6),
+    version              bigint,
+    title                varchar(255) not null,
+    description          text,
+    type                 varchar(255) not null,
+    level                varchar(255) not null,
+    status               varchar(255) not null,
+    sequence             integer not null,
+    min_required_score   integer,
+    recommended_duration integer,
+    theory_content       text,
+    has_ai_interaction   boolean,
+    ai_prompt_template   text,
+    module_id            bigint not null references modules (id)
+);
+
+create table lesson_prerequisites (
+    lesson_id       bigint not null references lessons (id),
+    prerequisite_id bigint not null references lessons (id),
+    primary key (lesson_id, prerequisite_id)
+);
+
+create table lesson_objectives (
+    lesson_id      bigint not null references lessons (id),
+    objective      varchar(255),
+    description    varchar(255),
+    required_score integer
+);
+
+create table tags (
+    id          bigint generated by default as identity primary key,
+    created_at  timestamp(6) not null,
+    updated_at  timestamp(6),
+    version     bigint,
+    name        varchar(255) not null unique,
+    description varchar(255)
+);
+
+create table lesson_tags (
+    lesson_id bigint not null references lessons (id),
+    tag_id    bigint not null references tags (id),
+    primary key (lesson_id, tag_id)
+);
+
+create table exercises (
+    id                 bigint generated by default as identity primary key,
+    created_at         timestamp(6) not null,
+    updated_at         timestamp(6),
+    version            bigint,
+    title              varchar(255) not null,
+    description        text,
+    content            text,
+    correct_answer     text,
+    answer_explanation text,
+    points             integer not null,
+    time_limit         integer,
+    type               varchar(255) not null,
+    status             varchar(255) not null,
+    sequence           integer not null,
+    lesson_id          bigint not null references lessons (id)
+);
+
+create table users (
+    id            bigint generated by default as identity primary key,
+    created_at    timestamp(6) not null,
+    updated_at    timestamp(6),
+    version       bigint,
+    username      varchar(255) not null unique,
+    email         varchar(255) not null unique,
+    password      varchar(255) not null,
+    first_name    varchar(255),
+    last_name     varchar(255),
+    status        varchar(255) not null,
+    last_login_at timestamp(6)
+);
+
+create table user_roles (
+    user_id bigint not null references users (id),
+    role    varchar(255) not null,
+    primary key (user_id, role)
+);
+
+create table user_progress (
+    id              bigint generated by default as identity primary key,
+    created_at      timestamp(6) not null,
+    updated_at      timestamp(6),
+    version         bigint,
+    user_id         bigint not null references users (id),
+    lesson_id       bigint not null references lessons (id),
+    status          varchar(255) not null,
+    value           integer,
+    max_possible    integer,
+    achieved_at     timestamp(6),
+    completed_at    timestamp(6),
+    last_attempt_at timestamp(6),
+    attempt_count   integer
+);
@@ -0,0 +1,7 @@
+create index if not exists idx_lessons_sequence_id on lessons (sequence, id);
+create index if not exists idx_lessons_module_sequence_id on lessons (module_id, sequence, id);
+
+create index if not exists idx_users_created_at_id on users (created_at, id);
+create index if not exists idx_users_status_created_at_id on users (status, created_at, id);
+
+create index if not exists idx_user_progress_user_lesson on user_progress (user_id, lesson_id);
@@ -0,0 +1,23 @@
+-- Sequences are unique per module. The constraint is deferrable so set-based renumbering is checked once per
+-- statement, and reorders can defer it to the end of the transaction. Modules that already hold duplicates are
+-- renumbered first, in steps of the sequence gap.
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conname = 'uq_lessons_module_sequence') then
+        update lessons l
+           set sequence = r.position * 1024,
+               version = l.version + 1,
+               updated_at = now()
+          from (select id, row_number() over (partition by module_id order by sequence, id) as position
+                from lessons
+                where module_id in (select module_id
+                                    from lessons
+                                    group by module_id, sequence
+                                    having count(*) > 1)) r
+         where l.id = r.id;
+
+        alter table lessons add constraint uq_lessons_module_sequence
+            unique (module_id, sequence) deferrable initially immediate;
+    end if;
+end
+$$;
@@ -0,0 +1,22 @@
+-- Every (ancestor, descendant) pair of the prerequisite graph with its shortest depth, self rows included
+create table if not exists lesson_prerequisite_closure (
+    ancestor_id   bigint not null,
+    descendant_id bigint not null,
+    depth         integer not null,
+    primary key (ancestor_id, descendant_id)
+);
+
+create index if not exists idx_lesson_closure_descendant on lesson_prerequisite_closure (descendant_id, depth);
+
+insert into lesson_prerequisite_closure (ancestor_id, descendant_id, depth)
+with recursive paths (ancestor_id, descendant_id, depth) as (
+    select l.id, l.id, 0 from lessons l
+    union
+    select lp.prerequisite_id, p.descendant_id, p.depth + 1
+    from paths p
+    join lesson_prerequisites lp on lp.lesson_id = p.ancestor_id
+)
+select ancestor_id, descendant_id, min(depth)
+from paths
+group by ancestor_id, descendant_id
+on conflict (ancestor_id, descendant_id) do nothing;
@@ -0,0 +1,111 @@
+-- Full-text search on lessons: a stored generated search_vector with a GIN index. Course languages and learning
+-- objectives live outside the row, so triggers copy them into search_config, search_source_config and
+-- search_objectives, and every write path keeps the vector current.
+create or replace function lesson_search_config(language text) returns regconfig
+language sql stable as $$
+    select coalesce(
+        (select c.oid::regconfig from pg_ts_config c where c.cfgname = lower(trim(language))),
+        (select c.oid::regconfig from pg_ts_config c where c.cfgname = case lower(trim(language))
+            when 'ar' then 'arabic' when 'da' then 'danish' when 'de' then 'german'
+            when 'el' then 'greek' when 'en' then 'english' when 'es' then 'spanish'
+            when 'fi' then 'finnish' when 'fr' then 'french' when 'hu' then 'hungarian'
+            when 'id' then 'indonesian' when 'it' then 'italian' when 'nl' then 'dutch'
+            when 'no' then 'norwegian' when 'pt' then 'portuguese' when 'ro' then 'romanian'
+            when 'ru' then 'russian' when 'sv' then 'swedish' when 'tr' then 'turkish'
+        end),
+        'simple'::regconfig)
+$$;
+
+alter table lessons
+    add column if not exists search_config regconfig not null default 'simple',
+    add column if not exists search_source_config regconfig not null default 'simple',
+    add column if not exists search_objectives text;
+
+update lessons l
+   set search_config = lesson_search_config(c.target_language),
+       search_source_config = lesson_search_config(c.source_language),
+       search_objectives = (
+           select string_agg(o.objective, ' ')
+           from lesson_objectives o
+           where o.lesson_id = l.id)
+  from modules m
+  join courses c on c.id = m.course_id
+ where m.id = l.module_id;
+
+alter table lessons add column if not exists search_vector tsvector generated always as (
+    setweight(to_tsvector(search_source_config, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector(search_source_config, coalesce(search_objectives, '')), 'B') ||
+    setweight(to_tsvector(search_source_config, coalesce(description, '')), 'B') ||
+    setweight(to_tsvector(search_source_config, coalesce(theory_content, '')), 'C') ||
+    case when search_config = search_source_config then ''::tsvector else
+        setweight(to_tsvector(search_config, coalesce(title, '')), 'A') ||
+        setweight(to_tsvector(search_config, coalesce(search_objectives, '')), 'B') ||
+        setweight(to_tsvector(search_config, coalesce(description, '')), 'B') ||
+        setweight(to_tsvector(search_config, coalesce(theory_content, '')), 'C')
+    end
+) stored;
+
+create index if not exists idx_lessons_search_vector on lessons using gin (search_vector);
+
+create or replace function lessons_set_search_config() returns trigger
+language plpgsql as $$
+begin
+    select lesson_search_config(c.target_language), lesson_search_config(c.source_language)
+      into new.search_config, new.search_source_config
+      from modules m
+      join courses c on c.id = m.course_id
+     where m.id = new.module_id;
+    return new;
+end
+$$;
+
+create or replace function lesson_objectives_refresh_search() returns trigger
+language plpgsql as $$
+begin
+    update lessons l
+       set search_objectives = (
+           select string_agg(o.objective, ' ')
+           from lesson_objectives o
+           where o.lesson_id = l.id)
+     where l.id in (select distinct lesson_id from changed);
+    return null;
+end
+$$;
+
+create or replace function courses_refresh_lesson_search_config() returns trigger
+language plpgsql as $$
+begin
+    update lessons l
+       set search_config = lesson_search_config(new.target_language),
+           search_source_config = lesson_search_config(new.source_language)
+      from modules m
+     where m.id = l.module_id
+       and m.course_id = new.id;
+    return null;
+end
+$$;
+
+drop trigger if exists trg_lessons_search_config on lessons;
+create trigger trg_lessons_search_config
+    before insert or update of module_id on lessons
+    for each row execute function lessons_set_search_config();
+
+drop trigger if exists trg_lesson_objectives_search_insert on lesson_objectives;
+create trigger trg_lesson_objectives_search_insert
+    after insert on lesson_objectives referencing new table as changed
+    for each statement execute function lesson_objectives_refresh_search();
+
+drop trigger if exists trg_lesson_objectives_search_update on lesson_objectives;
+create trigger trg_lesson_objectives_search_update
+    after update on lesson_objectives referencing new table as changed
+    for each statement execute function lesson_objectives_refresh_search();
+
+drop trigger if exists trg_lesson_objectives_search_delete on lesson_objectives;
+create trigger trg_lesson_objectives_search_delete
+    after delete on lesson_objectives referencing old table as changed
+    for each statement execute function lesson_objectives_refresh_search();
+
+drop trigger if exists trg_courses_lesson_search_config on courses;
+create trigger trg_courses_lesson_search_config
+    after update of target_language, source_language on courses
+    for each row execute function courses_refresh_lesson_search_config();
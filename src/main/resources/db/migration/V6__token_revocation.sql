@@ -0,0 +1,12 @@
+-- Tokens issued before this instant are rejected, even when authentication trusts the token's own claims
+alter table users add column if not exists tokens_not_before timestamp(6) with time zone;
+
+-- Denylist of individual tokens by jti, purged once the token itself has expired
+create table if not exists revoked_tokens (
+    jti        varchar(64) primary key,
+    expires_at timestamptz not null,
+    revoked_at timestamptz not null default now()
+);
+
+create index if not exists idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
+create index if not exists idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
@@ -0,0 +1,3 @@
+-- Revocation reloads run every few seconds on every node and only ever look at users with a revocation
+create index if not exists idx_users_tokens_not_before on users (tokens_not_before)
+    where tokens_not_before is not null;
@@ -0,0 +1,2 @@
+-- Every node polls users changed since its last refresh to keep its identifier filters current
+create index if not exists idx_users_updated_at on users (updated_at);
@@ -3,6 +3,7 @@ package ai.lingualeap.lingualeap;
 import ai.lingualeap.lingualeap.config.BaseIntegrationTest;
 import ai.lingualeap.lingualeap.dao.repository.UserRepository;
 import ai.lingualeap.lingualeap.model.enums.UserStatus;
+import ai.lingualeap.lingualeap.model.request.UserBulkStatusRequest;
 import ai.lingualeap.lingualeap.model.request.UserCreateRequest;
 import ai.lingualeap.lingualeap.model.response.AuthResponse;
 import ai.lingualeap.lingualeap.model.response.UserResponse;
@@ -13,16 +14,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -174,6 +183,71 @@ class UserIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath(CONTENT_EXPRESSION).value(ACTIVE_STATUS));
     }
 
+    @Test
+    void logoutRevokesBearerToken() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/logout")
+                        .header(AUTHORIZATION_HEADER, BEARER_PREFIX + authToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get(USERS_ENDPOINT)
+                        .header(AUTHORIZATION_HEADER, BEARER_PREFIX + authToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportUsersStreamsCsv() throws Exception {
+        createTestUser("user1", "user1@test.com");
+
+        MvcResult asyncResult = mockMvc.perform(get(USERS_ENDPOINT + "/export")
+                        .param("status", ACTIVE_STATUS)
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\r\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,username,email"));
+        assertTrue(lines[1].contains(ADMIN_EMAIL));
+        assertTrue(lines[2].contains("user1@test.com"));
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_USERNAME, roles = "ADMIN")
+    void bulkStatusUpdateCountsOnlyChangedUsersAndSparesCaller() throws Exception {
+        createTestUser("user1", "user1@test.com");
+        createTestUser("user2", "user2@test.com");
+        Long adminId = userRepository.findByUsername(ADMIN_USERNAME).orElseThrow().getId();
+        List<Long> ids = List.of(
+                userRepository.findByUsername("user1").orElseThrow().getId(),
+                userRepository.findByUsername("user2").orElseThrow().getId(),
+                adminId);
+        UserBulkStatusRequest request = new UserBulkStatusRequest(UserStatus.BANNED, ids, null, null, null);
+
+        mockMvc.perform(patch(USERS_ENDPOINT + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2));
+
+        mockMvc.perform(patch(USERS_ENDPOINT + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(0));
+
+        assertEquals(UserStatus.BANNED, userRepository.findById(ids.get(0)).orElseThrow().getStatus());
+        assertNotNull(userRepository.findById(ids.get(1)).orElseThrow().getTokensNotBefore());
+        assertEquals(UserStatus.ACTIVE, userRepository.findById(adminId).orElseThrow().getStatus());
+    }
+
     private void createTestUser(String username, String email) throws Exception {
         UserCreateRequest request = new UserCreateRequest();
         request.setUsername(username);
@@ -0,0 +1,98 @@
+package ai.lingualeap.lingualeap.benchmark;
+
+import ai.lingualeap.lingualeap.dao.entity.User;
+import ai.lingualeap.lingualeap.model.enums.UserRole;
+import ai.lingualeap.lingualeap.security.JwtService;
+import ai.lingualeap.lingualeap.security.SecurityUser;
+import ai.lingualeap.lingualeap.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the per-request token checks of the authentication filter: the former path verified the signature three
+ * times and rebuilt the key and parser for each, the current one verifies once with a shared parser.
+ */
+@Slf4j
+@Tag("benchmark")
+class JwtVerificationBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+
+    private JwtService jwtService;
+    private SecurityUser userDetails;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, 3_600_000);
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setEmail("benchmark@lingualeap.ai");
+        user.setRoles(Set.of(UserRole.USER));
+        userDetails = new SecurityUser(user);
+        token = jwtService.generateToken(userDetails);
+    }
+
+    @Test
+    void filterTokenCheck_TripleParseVersusSingleVerify() {
+        assertTrue(tripleParse());
+        assertTrue(singleVerify());
+
+        double tripleParseMicros = measure(this::tripleParse);
+        double singleVerifyMicros = measure(this::singleVerify);
+
+        log.info("JWT checks per authenticated request:");
+        log.info("  3 parses, key rebuilt each : {} us/op", String.format("%.2f", tripleParseMicros));
+        log.info("  1 verify, cached parser    : {} us/op", String.format("%.2f", singleVerifyMicros));
+    }
+
+    // The filter's former sequence: extractUsername, then isTokenValid re-extracting subject and expiration
+    private boolean tripleParse() {
+        String username = legacyClaims().getSubject();
+        return username.equals(userDetails.getUsername()) &&
+                legacyClaims().getSubject().equals(userDetails.getUsername()) &&
+                !legacyClaims().getExpiration().before(new Date());
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private boolean singleVerify() {
+        VerifiedToken verified = jwtService.verify(token).orElseThrow();
+        return jwtService.isTokenValid(verified, userDetails);
+    }
+
+    private double measure(BooleanSupplier operation) {
+        boolean sink = false;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink ^= operation.getAsBoolean();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink ^= operation.getAsBoolean();
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+        log.debug("Benchmark sink: {}", sink);
+        return micros;
+    }
+}
@@ -0,0 +1,177 @@
+package ai.lingualeap.lingualeap.benchmark;
+
+import ai.lingualeap.lingualeap.config.BaseIntegrationTest;
+import ai.lingualeap.lingualeap.dao.entity.Course;
+import ai.lingualeap.lingualeap.dao.entity.Lesson;
+import ai.lingualeap.lingualeap.dao.entity.Module;
+import ai.lingualeap.lingualeap.dao.entity.User;
+import ai.lingualeap.lingualeap.dao.entity.UserProgress;
+import ai.lingualeap.lingualeap.dao.repository.CourseRepository;
+import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
+import ai.lingualeap.lingualeap.dao.repository.ModuleRepository;
+import ai.lingualeap.lingualeap.dao.repository.UserProgressRepository;
+import ai.lingualeap.lingualeap.dao.repository.UserRepository;
+import ai.lingualeap.lingualeap.model.enums.CompletionStatus;
+import ai.lingualeap.lingualeap.model.enums.CourseLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.enums.UserRole;
+import ai.lingualeap.lingualeap.model.response.LessonAvailabilityResponse;
+import ai.lingualeap.lingualeap.service.LessonService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@Tag("benchmark")
+class LessonAvailabilityBenchmark extends BaseIntegrationTest {
+
+    private static final int MODULES = 10;
+    private static final int LESSONS_PER_MODULE = 40;
+    private static final int PREREQUISITES_PER_LESSON = 3;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private LessonService lessonService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long courseId;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> seed());
+    }
+
+    @Test
+    void courseAvailability_SingleQueryVersusPerLessonLoop() {
+        int expected = transactionTemplate.execute(status -> perLessonLoop());
+        int actual = (int) lessonService.getLessonAvailabilityForCourse(userId, courseId).stream()
+                .filter(LessonAvailabilityResponse::available)
+                .count();
+        assertEquals(expected, actual);
+
+        double loopMillis = measure(() -> transactionTemplate.execute(status -> perLessonLoop()));
+        double perModuleMillis = measure(this::perModuleCalls);
+        double singleQueryMillis = measure(() -> lessonService.getLessonAvailabilityForCourse(userId, courseId).size());
+
+        log.info("Course availability for {} lessons ({} prerequisites each):", MODULES * LESSONS_PER_MODULE,
+                PREREQUISITES_PER_LESSON);
+        log.info("  per-lesson repository loop : {} ms/op", String.format("%.2f", loopMillis));
+        log.info("  per-module service calls   : {} ms/op", String.format("%.2f", perModuleMillis));
+        log.info("  single set-based query     : {} ms/op", String.format("%.2f", singleQueryMillis));
+    }
+
+    private int perLessonLoop() {
+        int available = 0;
+        for (Module module : moduleRepository.findByCourseIdOrderBySequenceAsc(courseId)) {
+            for (Lesson lesson : lessonRepository.findByModuleIdOrderBySequenceAsc(module.getId())) {
+                boolean unlocked = lesson.getPrerequisites().stream()
+                        .allMatch(prerequisite -> userProgressRepository
+                                .findByUserIdAndLessonId(userId, prerequisite.getId())
+                                .map(progress -> CompletionStatus.COMPLETED.equals(progress.getStatus()))
+                                .orElse(false));
+                if (unlocked) {
+                    available++;
+                }
+            }
+        }
+        return available;
+    }
+
+    private int perModuleCalls() {
+        int available = 0;
+        for (Module module : moduleRepository.findByCourseIdOrderBySequenceAsc(courseId)) {
+            available += transactionTemplate.execute(status ->
+                    lessonService.getAvailableLessonsForUser(userId, module.getId()).size());
+        }
+        return available;
+    }
+
+    private double measure(IntSupplier operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.getAsInt();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.getAsInt();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ITERATIONS;
+    }
+
+    private void seed() {
+        Course course = new Course();
+        course.setTitle("Benchmark Course");
+        course.setTargetLanguage("English");
+        course.setSourceLanguage("Spanish");
+        course.setLevel(CourseLevel.B1);
+        courseId = courseRepository.save(course).getId();
+
+        User user = new User();
+        user.setUsername("benchmark-" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword("password");
+        user.setRoles(new HashSet<>(Set.of(UserRole.USER)));
+        user = userRepository.save(user);
+        userId = user.getId();
+
+        List<Lesson> previous = new ArrayList<>();
+        for (int m = 0; m < MODULES; m++) {
+            Module module = new Module();
+            module.setTitle("Module " + m);
+            module.setSequence(m);
+            module.setCourse(course);
+            module = moduleRepository.save(module);
+
+            for (int l = 0; l < LESSONS_PER_MODULE; l++) {
+                Lesson lesson = new Lesson();
+                lesson.setTitle("Lesson " + m + "." + l);
+                lesson.setType(LessonType.THEORY);
+                lesson.setLevel(LessonLevel.INTERMEDIATE);
+                lesson.setSequence(l);
+                lesson.setModule(module);
+                int from = Math.max(0, previous.size() - PREREQUISITES_PER_LESSON);
+                lesson.setPrerequisites(new HashSet<>(previous.subList(from, previous.size())));
+                lesson = lessonRepository.save(lesson);
+                previous.add(lesson);
+
+                if (previous.size() <= MODULES * LESSONS_PER_MODULE / 2) {
+                    UserProgress progress = new UserProgress();
+                    progress.setUser(user);
+                    progress.setLesson(lesson);
+                    progress.setStatus(CompletionStatus.COMPLETED);
+                    userProgressRepository.save(progress);
+                }
+            }
+        }
+    }
+}
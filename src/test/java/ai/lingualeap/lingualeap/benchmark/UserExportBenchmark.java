@@ -0,0 +1,96 @@
+package ai.lingualeap.lingualeap.benchmark;
+
+import ai.lingualeap.lingualeap.config.BaseIntegrationTest;
+import ai.lingualeap.lingualeap.model.enums.ExportFormat;
+import ai.lingualeap.lingualeap.service.UserExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@Tag("benchmark")
+class UserExportBenchmark extends BaseIntegrationTest {
+
+    private static final int USERS = 1_000_000;
+    private static final String PREFIX = "export-bench-";
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long existingUsers;
+
+    @BeforeEach
+    void setUp() {
+        existingUsers = jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        jdbcTemplate.update("""
+                insert into users (username, email, password, first_name, last_name, status, created_at, updated_at,
+                                   version)
+                select ? || g, ? || g || '@example.com', 'password', 'First ' || g, 'Last, ' || g, 'ACTIVE',
+                       now() - g * interval '1 second', now(), 0
+                from generate_series(1, ?) g
+                """, PREFIX, PREFIX, USERS);
+        jdbcTemplate.update("""
+                insert into user_roles (user_id, role)
+                select id, 'USER' from users where username like ?
+                """, PREFIX + "%");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from user_roles where user_id in (select id from users where username like ?)",
+                PREFIX + "%");
+        jdbcTemplate.update("delete from users where username like ?", PREFIX + "%");
+    }
+
+    @Test
+    void exportMillionUsers_StreamsWithConstantHeap() throws Exception {
+        for (ExportFormat format : ExportFormat.values()) {
+            // One unmeasured pass warms up the JIT and the database buffers
+            userExportService.exportUsers(null, null, null, format, OutputStream.nullOutputStream());
+
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            System.gc();
+            long heapBefore = memory.getHeapMemoryUsage().getUsed();
+            CountingOutputStream output = new CountingOutputStream();
+            long start = System.nanoTime();
+            long rows = userExportService.exportUsers(null, null, null, format, output);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long heapAfter = memory.getHeapMemoryUsage().getUsed();
+
+            assertEquals(USERS + existingUsers, rows);
+            log.info("{} export of {} users: {} s, {} rows/s, {} MB/s, {} MB written, heap delta {} MB", format, rows,
+                    String.format("%.2f", seconds),
+                    String.format("%.0f", rows / seconds),
+                    String.format("%.1f", output.bytes / seconds / (1 << 20)),
+                    String.format("%.1f", output.bytes / (double) (1 << 20)),
+                    String.format("%.1f", (heapAfter - heapBefore) / (double) (1 << 20)));
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
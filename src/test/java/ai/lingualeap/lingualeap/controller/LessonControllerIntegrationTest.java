@@ -13,24 +13,36 @@ import ai.lingualeap.lingualeap.model.enums.LessonStatus;
 import ai.lingualeap.lingualeap.model.enums.LessonType;
 import ai.lingualeap.lingualeap.model.request.LessonCreateRequest;
 import ai.lingualeap.lingualeap.model.response.LessonResponse;
+import ai.lingualeap.lingualeap.service.cache.CatalogCache;
+import ai.lingualeap.lingualeap.service.event.LessonChangedEvent;
+import ai.lingualeap.lingualeap.service.impl.LessonServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -62,6 +74,9 @@ class LessonControllerIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private CatalogCache catalogCache;
+
     private Module testModule;
     private LessonCreateRequest createRequest;
 
@@ -167,4 +182,230 @@ class LessonControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.content[0].title").value(lesson.getTitle()))
                 .andExpect(jsonPath("$.totalElements").value(1));
     }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void getLessonsByModule_ReturnsOnlyRequestedFields() throws Exception {
+        Lesson lesson = new Lesson();
+        lesson.setTitle(TEST_LESSON_TITLE);
+        lesson.setDescription(TEST_DESCRIPTION);
+        lesson.setTheoryContent("Theory content");
+        lesson.setType(LessonType.THEORY);
+        lesson.setLevel(LessonLevel.BEGINNER);
+        lesson.setStatus(LessonStatus.DRAFT);
+        lesson.setModule(testModule);
+        lesson.setSequence(1);
+        lessonRepository.save(lesson);
+
+        mockMvc.perform(get(API_LESSONS + "/module/{moduleId}", testModule.getId())
+                        .param("fields", "theoryContent,prerequisites"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value(TEST_LESSON_TITLE))
+                .andExpect(jsonPath("$[0].moduleId").value(testModule.getId()))
+                .andExpect(jsonPath("$[0].theoryContent").value("Theory content"))
+                .andExpect(jsonPath("$[0].prerequisiteIds").isEmpty())
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].exercises").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void getLessonsByModule_MatchingETag_ReturnsNotModifiedUntilLessonChanges() throws Exception {
+        Lesson lesson = new Lesson();
+        lesson.setTitle(TEST_LESSON_TITLE);
+        lesson.setType(LessonType.THEORY);
+        lesson.setLevel(LessonLevel.BEGINNER);
+        lesson.setStatus(LessonStatus.DRAFT);
+        lesson.setModule(testModule);
+        lesson.setSequence(1);
+        lesson = lessonRepository.saveAndFlush(lesson);
+
+        String eTag = mockMvc.perform(get(API_LESSONS + "/module/{moduleId}", testModule.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(API_LESSONS + "/module/{moduleId}", testModule.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        lesson.setTitle(INTEGRATION_TEST_LESSON);
+        lessonRepository.saveAndFlush(lesson);
+        // The test transaction never commits, so deliver the after-commit eviction directly
+        catalogCache.onLessonChanged(new LessonChangedEvent(lesson.getId(), testModule.getId(), null));
+
+        mockMvc.perform(get(API_LESSONS + "/module/{moduleId}", testModule.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value(INTEGRATION_TEST_LESSON));
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void getPublishedLessonsByModule_ServesGzipSnapshotOfPublishedLessons() throws Exception {
+        for (LessonStatus status : List.of(LessonStatus.PUBLISHED, LessonStatus.DRAFT)) {
+            Lesson lesson = new Lesson();
+            lesson.setTitle(TEST_LESSON_TITLE + " " + status);
+            lesson.setType(LessonType.THEORY);
+            lesson.setLevel(LessonLevel.BEGINNER);
+            lesson.setStatus(status);
+            lesson.setModule(testModule);
+            lesson.setSequence(status.ordinal() + 1);
+            lessonRepository.saveAndFlush(lesson);
+        }
+
+        MvcResult gzipped = mockMvc.perform(get(API_LESSONS + "/module/{moduleId}/published", testModule.getId())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn();
+        byte[] json;
+        try (GZIPInputStream gzip = new GZIPInputStream(
+                new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            json = gzip.readAllBytes();
+        }
+        List<?> lessons = objectMapper.readValue(json, List.class);
+        assertEquals(1, lessons.size());
+
+        mockMvc.perform(get(API_LESSONS + "/module/{moduleId}/published", testModule.getId())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value(TEST_LESSON_TITLE + " " + LessonStatus.PUBLISHED));
+
+        mockMvc.perform(get(API_LESSONS + "/module/{moduleId}/published", testModule.getId())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipped.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void moveLesson_RenumbersOnlyWhenGapsRunOut() throws Exception {
+        List<Lesson> lessons = new ArrayList<>();
+        for (int sequence = 1; sequence <= 3; sequence++) {
+            Lesson lesson = new Lesson();
+            lesson.setTitle(TEST_LESSON_TITLE + " " + sequence);
+            lesson.setType(LessonType.THEORY);
+            lesson.setLevel(LessonLevel.BEGINNER);
+            lesson.setStatus(LessonStatus.DRAFT);
+            lesson.setModule(testModule);
+            lesson.setSequence(sequence);
+            lessons.add(lessonRepository.saveAndFlush(lesson));
+        }
+        Long first = lessons.get(0).getId();
+        Long second = lessons.get(1).getId();
+        Long third = lessons.get(2).getId();
+
+        // Sequences 1, 2 and 3 leave no gap, so the module is renumbered before the move
+        mockMvc.perform(patch(API_LESSONS + "/{id}/position", third)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"afterLessonId\": " + first + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sequence").value(LessonServiceImpl.SEQUENCE_GAP * 3 / 2));
+
+        Long firstVersion = lessonRepository.findById(first).orElseThrow().getVersion();
+        mockMvc.perform(patch(API_LESSONS + "/{id}/position", second)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"beforeLessonId\": " + first + "}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sequence").value(LessonServiceImpl.SEQUENCE_GAP / 2));
+        assertEquals(firstVersion, lessonRepository.findById(first).orElseThrow().getVersion());
+
+        mockMvc.perform(get(API_LESSONS + "/module/{moduleId}", testModule.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(second))
+                .andExpect(jsonPath("$[1].id").value(first))
+                .andExpect(jsonPath("$[2].id").value(third));
+
+        mockMvc.perform(patch(API_LESSONS + "/{id}/position", second)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"beforeLessonId\": " + first + ", \"afterLessonId\": " + third + "}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void createLesson_DuplicateSequence_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post(API_LESSONS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post(API_LESSONS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void searchLessons_UnknownField_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get(API_LESSONS).param("fields", "correctAnswer"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void scrollLessons_FollowsCursorWithoutOverlap() throws Exception {
+        for (int sequence = 1; sequence <= 3; sequence++) {
+            Lesson lesson = new Lesson();
+            lesson.setTitle(TEST_LESSON_TITLE + " " + sequence);
+            lesson.setType(LessonType.THEORY);
+            lesson.setLevel(LessonLevel.BEGINNER);
+            lesson.setStatus(LessonStatus.DRAFT);
+            lesson.setModule(testModule);
+            lesson.setSequence(sequence);
+            lessonRepository.save(lesson);
+        }
+
+        MvcResult first = mockMvc.perform(get(API_LESSONS + "/cursor")
+                        .param("moduleId", testModule.getId().toString())
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[1].sequence").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn();
+        String cursor = objectMapper.readTree(first.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get(API_LESSONS + "/cursor")
+                        .param("moduleId", testModule.getId().toString())
+                        .param("size", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].sequence").value(3))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void fullTextSearch_MatchesStemmedTheoryContentWithHeadline() throws Exception {
+        Lesson lesson = new Lesson();
+        lesson.setTitle("Past continuous");
+        lesson.setTheoryContent("Yesterday the children were running in the park");
+        lesson.setType(LessonType.THEORY);
+        lesson.setLevel(LessonLevel.BEGINNER);
+        lesson.setStatus(LessonStatus.DRAFT);
+        lesson.setModule(testModule);
+        lesson.setSequence(1);
+        lesson = lessonRepository.save(lesson);
+
+        mockMvc.perform(get(API_LESSONS + "/search")
+                        .param("q", "runs")
+                        .param("moduleId", testModule.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(lesson.getId()))
+                .andExpect(jsonPath("$.content[0].headline").value(containsString("<b>")));
+
+        mockMvc.perform(get(API_LESSONS + "/search")
+                        .param("q", "swimming")
+                        .param("moduleId", testModule.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
 }
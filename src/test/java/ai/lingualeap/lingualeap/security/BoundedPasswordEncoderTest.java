@@ -0,0 +1,92 @@
+package ai.lingualeap.lingualeap.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    private static final String PASSWORD = "password123";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_RunOnPoolAndRecordLatency() {
+        encoder = new BoundedPasswordEncoder(4, 2, 8, Duration.ofSeconds(5), meterRegistry);
+
+        String hash = encoder.encode(PASSWORD);
+
+        assertTrue(encoder.matches(PASSWORD, hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("security.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("security.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void upgradeEncoding_WhenStoredCostDiffers() {
+        encoder = new BoundedPasswordEncoder(5, 1, 8, Duration.ofSeconds(5), meterRegistry);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode(PASSWORD)));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode(PASSWORD)));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode(PASSWORD)));
+        assertFalse(encoder.upgradeEncoding("{noop}plain"));
+    }
+
+    @Test
+    void encode_RejectsImmediatelyWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        encoder = new BoundedPasswordEncoder(blocking, 10, 1, 1, Duration.ofSeconds(5), meterRegistry);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> encoder.encode(PASSWORD));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> encoder.encode(PASSWORD));
+            while (meterRegistry.get("security.password.queue").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(PasswordHashingOverloadedException.class, () -> encoder.encode(PASSWORD));
+            assertEquals(1, meterRegistry.get("security.password.rejected").counter().count());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ai.lingualeap.lingualeap.security;
+
+import ai.lingualeap.lingualeap.dao.entity.User;
+import ai.lingualeap.lingualeap.model.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private SecurityUser userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, 60_000);
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("teacher");
+        user.setEmail("teacher@lingualeap.ai");
+        user.setRoles(Set.of(UserRole.TEACHER));
+        userDetails = new SecurityUser(user);
+    }
+
+    @Test
+    void verify_ExposesSubjectAndRolesFromSingleParse() {
+        VerifiedToken token = jwtService.verify(jwtService.generateToken(userDetails)).orElseThrow();
+
+        assertEquals("teacher", token.username());
+        assertEquals(List.of("TEACHER"), token.roles());
+        assertTrue(jwtService.isTokenValid(token, userDetails));
+    }
+
+    @Test
+    void fromToken_BuildsPrincipalWithoutDatabase() {
+        VerifiedToken token = jwtService.verify(jwtService.generateToken(userDetails)).orElseThrow();
+
+        SecurityUser principal = SecurityUser.fromToken(token);
+
+        assertEquals(1L, principal.getUser().getId());
+        assertEquals("teacher@lingualeap.ai", principal.getUser().getEmail());
+        assertEquals(Set.of(UserRole.TEACHER), principal.getUser().getRoles());
+        assertTrue(principal.isEnabled());
+        assertTrue(jwtService.isTokenValid(token, principal));
+    }
+
+    @Test
+    void verify_RejectsTamperedToken() {
+        String token = jwtService.generateToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(jwtService.verify(tampered).isEmpty());
+        assertTrue(jwtService.verify("not-a-jwt").isEmpty());
+    }
+
+    @Test
+    void verify_RejectsExpiredToken() {
+        JwtService expiring = new JwtService(SECRET, -1_000);
+
+        assertTrue(expiring.verify(expiring.generateToken(userDetails)).isEmpty());
+    }
+}
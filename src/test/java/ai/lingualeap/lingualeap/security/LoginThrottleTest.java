@@ -0,0 +1,99 @@
+package ai.lingualeap.lingualeap.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleTest {
+
+    private static final String USERNAME = "student";
+    private static final String ADDRESS = "203.0.113.7";
+    private static final Duration TTL = Duration.ofMinutes(15);
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new LoginThrottle(meterRegistry,
+                new TokenBuckets(3, Duration.ofSeconds(10), 1_000, TTL, clock::get),
+                new TokenBuckets(5, Duration.ofSeconds(1), 1_000, TTL, clock::get),
+                Duration.ofSeconds(10), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void acquire_RejectsUsernameOnceBucketIsEmpty() {
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> throttle.acquire(USERNAME, ADDRESS));
+        }
+
+        LoginThrottledException rejected = assertThrows(LoginThrottledException.class,
+                () -> throttle.acquire(USERNAME, ADDRESS));
+        assertEquals(Duration.ofSeconds(10), rejected.getRetryAfter());
+        assertEquals(1, meterRegistry.get("security.login.throttle").tag("limit", "username").counter().count());
+        assertDoesNotThrow(() -> throttle.acquire("someone-else", ADDRESS));
+    }
+
+    @Test
+    void acquire_RefillsOverTimeIncludingPartialTokens() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire(USERNAME, ADDRESS);
+        }
+
+        clock.addAndGet(6_000);
+        assertThrows(LoginThrottledException.class, () -> throttle.acquire(USERNAME, ADDRESS));
+        clock.addAndGet(4_000);
+        assertDoesNotThrow(() -> throttle.acquire(USERNAME, ADDRESS));
+        assertThrows(LoginThrottledException.class, () -> throttle.acquire(USERNAME, ADDRESS));
+    }
+
+    @Test
+    void acquire_RejectsAddressSprayingManyUsernames() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire(USERNAME + i, ADDRESS);
+        }
+
+        assertThrows(LoginThrottledException.class, () -> throttle.acquire("fresh", ADDRESS));
+        assertEquals(1, meterRegistry.get("security.login.throttle").tag("limit", "ip").counter().count());
+    }
+
+    @Test
+    void tryAcquire_NeverOverGrantsUnderContention() throws Exception {
+        TokenBuckets buckets = new TokenBuckets(100, Duration.ofHours(1), 10, TTL, clock::get);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(pool.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    if (buckets.tryAcquire(USERNAME)) {
+                        granted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(100, granted.get());
+    }
+}
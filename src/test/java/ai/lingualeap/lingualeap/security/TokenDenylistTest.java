@@ -0,0 +1,119 @@
+package ai.lingualeap.lingualeap.security;
+
+import ai.lingualeap.lingualeap.dao.repository.jdbc.RevokedTokenJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenDenylistTest {
+
+    private static final String JTI = "5f0c2a3e-7d8b-4c1e-9a6f-2b3c4d5e6f70";
+
+    @Mock
+    private RevokedTokenJdbcRepository revokedTokenRepository;
+
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        denylist = loadedDenylist(1_000);
+    }
+
+    @Test
+    void isRevoked_ChecksDatabaseUntilFirstLoadSucceeds() {
+        denylist = new TokenDenylist(revokedTokenRepository, 1_000, 0.01, Duration.ofSeconds(15));
+        when(revokedTokenRepository.findActiveJtis()).thenThrow(new IllegalStateException("db down"));
+        when(revokedTokenRepository.isRevoked(JTI)).thenReturn(true);
+
+        denylist.afterSingletonsInstantiated();
+        denylist.shutdown();
+
+        assertTrue(denylist.isRevoked(JTI));
+    }
+
+    @Test
+    void isRevoked_UnknownTokenSkipsDatabase() {
+        assertFalse(denylist.isRevoked(JTI));
+        assertFalse(denylist.isRevoked(null));
+
+        verify(revokedTokenRepository, never()).isRevoked(anyString());
+    }
+
+    @Test
+    void revoke_PersistsAndConfirmsAgainstDatabase() {
+        Instant expiresAt = Instant.now().plusSeconds(3_600);
+        when(revokedTokenRepository.isRevoked(JTI)).thenReturn(true);
+
+        denylist.revoke(JTI, expiresAt);
+
+        verify(revokedTokenRepository).insert(JTI, expiresAt);
+        assertTrue(denylist.isRevoked(JTI));
+    }
+
+    @Test
+    void revoke_IgnoresExpiredToken() {
+        denylist.revoke(JTI, Instant.now().minusSeconds(1));
+
+        verify(revokedTokenRepository, never()).insert(anyString(), any());
+    }
+
+    @Test
+    void refresh_PicksUpRevocationsFromOtherNodes() {
+        when(revokedTokenRepository.findJtisRevokedSince(any())).thenReturn(List.of(JTI));
+        when(revokedTokenRepository.isRevoked(JTI)).thenReturn(true);
+
+        denylist.refresh();
+
+        assertTrue(denylist.isRevoked(JTI));
+    }
+
+    @Test
+    void refresh_RebuildsWithoutExpiredEntries() {
+        denylist.revoke(JTI, Instant.now().plusSeconds(3_600));
+        when(revokedTokenRepository.deleteExpired()).thenReturn(1);
+        when(revokedTokenRepository.findActiveJtis()).thenReturn(List.of());
+
+        denylist.refresh();
+
+        assertFalse(denylist.isRevoked(JTI));
+        verify(revokedTokenRepository, never()).isRevoked(anyString());
+    }
+
+    @Test
+    void refresh_RebuildsOnceFilterIsFullEvenWithoutLocalPurge() {
+        denylist = loadedDenylist(2);
+        clearInvocations(revokedTokenRepository);
+        when(revokedTokenRepository.findJtisRevokedSince(any())).thenReturn(List.of("a", "b", "c"));
+        denylist.refresh();
+        when(revokedTokenRepository.findActiveJtis()).thenReturn(List.of("c"));
+
+        denylist.refresh();
+
+        verify(revokedTokenRepository).findActiveJtis();
+        when(revokedTokenRepository.isRevoked("c")).thenReturn(true);
+        assertTrue(denylist.isRevoked("c"));
+    }
+
+    private TokenDenylist loadedDenylist(long expectedRevocations) {
+        TokenDenylist loaded = new TokenDenylist(revokedTokenRepository, expectedRevocations, 0.01,
+                Duration.ofSeconds(15));
+        loaded.refresh();
+        return loaded;
+    }
+}
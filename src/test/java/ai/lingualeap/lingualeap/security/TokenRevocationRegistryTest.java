@@ -0,0 +1,99 @@
+package ai.lingualeap.lingualeap.security;
+
+import ai.lingualeap.lingualeap.dao.repository.UserRepository;
+import ai.lingualeap.lingualeap.dao.repository.projection.TokenRevocationView;
+import ai.lingualeap.lingualeap.service.event.UserTokensRevokedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationRegistryTest {
+
+    private static final long USER_ID = 7L;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenRevocationRegistry(userRepository, Duration.ofDays(1).toMillis(), Duration.ofSeconds(15));
+    }
+
+    @Test
+    void isRevoked_EveryTokenUntilFirstLoadSucceeds() {
+        Date issuedAt = Date.from(Instant.now());
+        when(userRepository.findTokenRevocationsSince(any()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(List.of());
+
+        assertTrue(registry.isRevoked(USER_ID, issuedAt));
+        registry.refresh();
+        assertTrue(registry.isRevoked(USER_ID, issuedAt));
+        registry.refresh();
+        assertFalse(registry.isRevoked(USER_ID, issuedAt));
+    }
+
+    @Test
+    void isRevoked_OnlyTokensIssuedBeforeRevocation() {
+        registry.refresh();
+        Instant revokedAt = Instant.parse("2026-01-01T10:00:00.400Z");
+        registry.onTokensRevoked(new UserTokensRevokedEvent(USER_ID, revokedAt));
+
+        assertTrue(registry.isRevoked(USER_ID, Date.from(Instant.parse("2026-01-01T09:59:00Z"))));
+        // Same second as the revocation: issued-at has no sub-second precision, so it may predate it
+        assertTrue(registry.isRevoked(USER_ID, Date.from(Instant.parse("2026-01-01T10:00:00Z"))));
+        assertFalse(registry.isRevoked(USER_ID, Date.from(Instant.parse("2026-01-01T10:00:01Z"))));
+        assertFalse(registry.isRevoked(8L, Date.from(Instant.parse("2026-01-01T09:59:00Z"))));
+    }
+
+    @Test
+    void refresh_PicksUpRevocationsFromOtherNodes() {
+        Instant revokedAt = Instant.now();
+        when(userRepository.findTokenRevocationsSince(any())).thenReturn(List.of(revocation(revokedAt)));
+
+        registry.refresh();
+
+        assertTrue(registry.isRevoked(USER_ID, Date.from(revokedAt.minusSeconds(60))));
+    }
+
+    @Test
+    void refresh_KeepsKnownRevocationsWhenReloadFails() {
+        registry.refresh();
+        Instant revokedAt = Instant.now();
+        registry.onTokensRevoked(new UserTokensRevokedEvent(USER_ID, revokedAt));
+        when(userRepository.findTokenRevocationsSince(any())).thenThrow(new IllegalStateException("db down"));
+
+        registry.refresh();
+
+        assertTrue(registry.isRevoked(USER_ID, Date.from(revokedAt.minusSeconds(60))));
+    }
+
+    private static TokenRevocationView revocation(Instant notBefore) {
+        return new TokenRevocationView() {
+            @Override
+            public Long getUserId() {
+                return USER_ID;
+            }
+
+            @Override
+            public Instant getNotBefore() {
+                return notBefore;
+            }
+        };
+    }
+}
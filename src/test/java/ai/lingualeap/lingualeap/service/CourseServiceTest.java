@@ -0,0 +1,162 @@
+package ai.lingualeap.lingualeap.service;
+
+import ai.lingualeap.lingualeap.dao.entity.Lesson;
+import ai.lingualeap.lingualeap.dao.entity.Module;
+import ai.lingualeap.lingualeap.dao.repository.CourseRepository;
+import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
+import ai.lingualeap.lingualeap.dao.repository.ModuleRepository;
+import ai.lingualeap.lingualeap.dao.repository.projection.PrerequisiteEdge;
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.response.LearningPathItemResponse;
+import ai.lingualeap.lingualeap.model.response.LearningPathResponse;
+import ai.lingualeap.lingualeap.service.event.LessonChangedEvent;
+import ai.lingualeap.lingualeap.service.graph.LessonGraph;
+import ai.lingualeap.lingualeap.service.impl.CourseServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CourseServiceTest {
+
+    private static final Long COURSE_ID = 1L;
+    private static final Long FIRST_MODULE_ID = 10L;
+    private static final Long SECOND_MODULE_ID = 20L;
+    private static final String VERSION = "v1";
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private ModuleRepository moduleRepository;
+
+    @Mock
+    private LessonRepository lessonRepository;
+
+    private CourseServiceImpl courseService;
+
+    @BeforeEach
+    void setUp() {
+        LessonGraph lessonGraph = new LessonGraph(lessonRepository, Duration.ofMinutes(1));
+        courseService = new CourseServiceImpl(courseRepository, moduleRepository, lessonRepository, lessonGraph,
+                new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+
+        Module first = module(FIRST_MODULE_ID, 1);
+        Module second = module(SECOND_MODULE_ID, 2);
+        // Lesson 1 opens the course by sequence but needs lesson 4 from the second module
+        lenient().when(lessonRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 4L));
+        lenient().when(lessonRepository.findAllPrerequisiteEdges()).thenReturn(List.of(edge(1L, 4L)));
+        lenient().when(moduleRepository.findByCourseIdOrderBySequenceAsc(COURSE_ID)).thenReturn(List.of(first, second));
+        lenient().when(lessonRepository.findByModuleIdOrderBySequenceAsc(FIRST_MODULE_ID))
+                .thenReturn(List.of(lesson(1L, first, 1024), lesson(2L, first, 2048)));
+        lenient().when(lessonRepository.findByModuleIdOrderBySequenceAsc(SECOND_MODULE_ID))
+                .thenReturn(List.of(lesson(3L, second, 1024), lesson(4L, second, 2048)));
+        lenient().when(courseRepository.findLearningPathVersion(COURSE_ID)).thenReturn(Optional.of(VERSION));
+    }
+
+    @Test
+    void getLearningPath_OrdersByPrerequisitesThenModuleAndLessonSequence() {
+        LearningPathResponse path = courseService.getLearningPath(COURSE_ID);
+
+        assertEquals(List.of(2L, 3L, 4L, 1L), path.lessons().stream().map(LearningPathItemResponse::lessonId).toList());
+        LearningPathItemResponse last = path.lessons().get(3);
+        assertEquals(FIRST_MODULE_ID, last.moduleId());
+        assertEquals(1, last.moduleSequence());
+        assertEquals(1024, last.sequence());
+        assertEquals(List.of(4L), last.prerequisiteIds());
+    }
+
+    @Test
+    void getLearningPath_UnknownCourseThrows() {
+        when(courseRepository.findLearningPathVersion(99L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> courseService.getLearningPath(99L));
+    }
+
+    @Test
+    void getLearningPath_ReusesPathWhileVersionIsUnchanged() {
+        courseService.getLearningPath(COURSE_ID);
+        courseService.getLearningPath(COURSE_ID);
+
+        verify(moduleRepository, times(1)).findByCourseIdOrderBySequenceAsc(COURSE_ID);
+    }
+
+    @Test
+    void getLearningPath_RebuildsForNewCourseVersion() {
+        // A change committed on another node only shows up in the version
+        when(courseRepository.findLearningPathVersion(COURSE_ID)).thenReturn(Optional.of(VERSION), Optional.of("v2"));
+
+        courseService.getLearningPath(COURSE_ID);
+        courseService.getLearningPath(COURSE_ID);
+
+        verify(moduleRepository, times(2)).findByCourseIdOrderBySequenceAsc(COURSE_ID);
+    }
+
+    @Test
+    void onLessonChanged_EvictsPathOfTheLessonsCourse() {
+        courseService.getLearningPath(COURSE_ID);
+
+        courseService.onLessonChanged(new LessonChangedEvent(2L, FIRST_MODULE_ID, null));
+        courseService.getLearningPath(COURSE_ID);
+
+        verify(moduleRepository, times(2)).findByCourseIdOrderBySequenceAsc(COURSE_ID);
+    }
+
+    @Test
+    void onLessonChanged_OtherModuleKeepsPath() {
+        courseService.getLearningPath(COURSE_ID);
+
+        courseService.onLessonChanged(new LessonChangedEvent(9L, 99L, null));
+        courseService.getLearningPath(COURSE_ID);
+
+        verify(moduleRepository, times(1)).findByCourseIdOrderBySequenceAsc(COURSE_ID);
+    }
+
+    private static Module module(Long id, int sequence) {
+        Module module = new Module();
+        module.setId(id);
+        module.setSequence(sequence);
+        return module;
+    }
+
+    private static Lesson lesson(Long id, Module module, int sequence) {
+        Lesson lesson = new Lesson();
+        lesson.setId(id);
+        lesson.setModule(module);
+        lesson.setSequence(sequence);
+        lesson.setTitle("Lesson " + id);
+        lesson.setType(LessonType.THEORY);
+        lesson.setLevel(LessonLevel.BEGINNER);
+        return lesson;
+    }
+
+    private static PrerequisiteEdge edge(Long lessonId, Long prerequisiteId) {
+        return new PrerequisiteEdge() {
+            @Override
+            public Long getLessonId() {
+                return lessonId;
+            }
+
+            @Override
+            public Long getPrerequisiteId() {
+                return prerequisiteId;
+            }
+        };
+    }
+}
@@ -0,0 +1,257 @@
+package ai.lingualeap.lingualeap.service;
+
+import ai.lingualeap.lingualeap.config.BaseIntegrationTest;
+import ai.lingualeap.lingualeap.dao.entity.Course;
+import ai.lingualeap.lingualeap.dao.entity.Lesson;
+import ai.lingualeap.lingualeap.dao.entity.Module;
+import ai.lingualeap.lingualeap.dao.repository.CourseRepository;
+import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
+import ai.lingualeap.lingualeap.dao.repository.ModuleRepository;
+import ai.lingualeap.lingualeap.model.enums.CourseLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.request.LessonImportRecord;
+import ai.lingualeap.lingualeap.model.response.LessonImportResponse;
+import ai.lingualeap.lingualeap.service.graph.PrerequisiteClosure;
+import ai.lingualeap.lingualeap.service.impl.LessonServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the NDJSON import against Postgres with a chunk size of {@value #CHUNK_SIZE}, so every import below spans
+ * several chunks.
+ */
+@TestPropertySource(properties = "application.lesson-import.chunk-size=" + LessonImportIntegrationTest.CHUNK_SIZE)
+class LessonImportIntegrationTest extends BaseIntegrationTest {
+
+    static final int CHUNK_SIZE = 3;
+
+    private static final int LESSONS = 7;
+    private static final String TITLE_PREFIX = "Imported ";
+    private static final String MODULE_LESSON_IDS = "select id from lessons where module_id = ?";
+
+    @Autowired
+    private LessonImportService lessonImportService;
+
+    @Autowired
+    private PrerequisiteClosure prerequisiteClosure;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Course course;
+    private Module module;
+    private Lesson existing;
+
+    @BeforeEach
+    void setUp() {
+        course = new Course();
+        course.setTitle("Import Course");
+        course.setTargetLanguage("English");
+        course.setSourceLanguage("Spanish");
+        course.setLevel(CourseLevel.A1);
+        course = courseRepository.save(course);
+
+        module = new Module();
+        module.setTitle("Import Module");
+        module.setSequence(1);
+        module.setCourse(course);
+        module = moduleRepository.save(module);
+
+        existing = new Lesson();
+        existing.setTitle("Existing Lesson");
+        existing.setType(LessonType.THEORY);
+        existing.setLevel(LessonLevel.BEGINNER);
+        existing.setSequence(LessonServiceImpl.SEQUENCE_GAP);
+        existing.setModule(module);
+        existing = lessonRepository.save(existing);
+        prerequisiteClosure.onLessonCreated(existing.getId(), List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<Long> lessonIds = jdbcTemplate.queryForList(MODULE_LESSON_IDS, Long.class, module.getId());
+        for (Long lessonId : lessonIds) {
+            jdbcTemplate.update("delete from lesson_prerequisite_closure where ancestor_id = ? or descendant_id = ?",
+                    lessonId, lessonId);
+            jdbcTemplate.update("delete from lesson_prerequisites where lesson_id = ? or prerequisite_id = ?",
+                    lessonId, lessonId);
+            jdbcTemplate.update("delete from lesson_objectives where lesson_id = ?", lessonId);
+            jdbcTemplate.update("delete from lesson_tags where lesson_id = ?", lessonId);
+        }
+        jdbcTemplate.update("delete from lessons where module_id = ?", module.getId());
+        moduleRepository.deleteById(module.getId());
+        courseRepository.deleteById(course.getId());
+    }
+
+    @Test
+    void importLessons_ChainAcrossChunksResolvesKeysAndWritesClosure() throws Exception {
+        // k1 needs the existing lesson, every later record needs the one before it
+        List<LessonImportRecord> records = new ArrayList<>();
+        records.add(record("k1", null, Set.of(existing.getId()), null));
+        for (int i = 2; i <= LESSONS; i++) {
+            records.add(record("k" + i, null, null, Set.of("k" + (i - 1))));
+        }
+
+        LessonImportResponse response = lessonImportService.importLessons(ndjson(records));
+
+        assertEquals(LESSONS, response.imported());
+        Map<String, Long> idsByKey = importedIdsByKey();
+        assertEquals(LESSONS, idsByKey.size());
+
+        // Sequences continue after the existing lesson in steps of the gap
+        for (int i = 1; i <= LESSONS; i++) {
+            assertEquals((i + 1) * LessonServiceImpl.SEQUENCE_GAP, jdbcTemplate.queryForObject(
+                    "select sequence from lessons where id = ?", Integer.class, idsByKey.get("k" + i)));
+        }
+
+        // k4 sits in the second chunk and references k3 from the first one
+        assertEquals(List.of(idsByKey.get("k3")), jdbcTemplate.queryForList(
+                "select prerequisite_id from lesson_prerequisites where lesson_id = ?", Long.class,
+                idsByKey.get("k4")));
+
+        // The last lesson reaches every earlier record and the existing lesson, at increasing depth
+        List<Map<String, Object>> ancestors = jdbcTemplate.queryForList("""
+                select ancestor_id, depth from lesson_prerequisite_closure
+                where descendant_id = ? and depth > 0
+                order by depth
+                """, idsByKey.get("k" + LESSONS));
+        assertEquals(LESSONS, ancestors.size());
+        for (int depth = 1; depth < LESSONS; depth++) {
+            Map<String, Object> path = ancestors.get(depth - 1);
+            assertEquals(idsByKey.get("k" + (LESSONS - depth)), ((Number) path.get("ancestor_id")).longValue());
+            assertEquals(depth, ((Number) path.get("depth")).intValue());
+        }
+        assertEquals(existing.getId(), ((Number) ancestors.get(LESSONS - 1).get("ancestor_id")).longValue());
+        assertEquals(LESSONS + 1, jdbcTemplate.queryForObject("""
+                select count(*) from lesson_prerequisite_closure
+                where ancestor_id = descendant_id and depth = 0 and descendant_id in (
+                    select id from lessons where module_id = ?)
+                """, Integer.class, module.getId()));
+    }
+
+    @Test
+    void importLessons_ReservesIdsFromTheLessonSequence() throws Exception {
+        List<LessonImportRecord> records = new ArrayList<>();
+        for (int i = 1; i <= LESSONS; i++) {
+            records.add(record("k" + i, null, null, null));
+        }
+
+        lessonImportService.importLessons(ndjson(records));
+
+        Set<Long> ids = new HashSet<>(importedIdsByKey().values());
+        assertEquals(LESSONS, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id > existing.getId()));
+
+        Lesson created = new Lesson();
+        created.setTitle("Created After Import");
+        created.setType(LessonType.THEORY);
+        created.setLevel(LessonLevel.BEGINNER);
+        created.setSequence(100 * LessonServiceImpl.SEQUENCE_GAP);
+        created.setModule(module);
+        created = lessonRepository.save(created);
+        Long createdId = created.getId();
+        assertTrue(ids.stream().allMatch(id -> id < createdId));
+    }
+
+    @Test
+    void importLessons_DuplicateKeyInLaterChunkRollsBackEverything() throws Exception {
+        List<LessonImportRecord> records = new ArrayList<>();
+        for (int i = 1; i <= CHUNK_SIZE + 1; i++) {
+            records.add(record("k" + i, null, null, null));
+        }
+        records.add(record("k1", null, null, null));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> lessonImportService.importLessons(ndjson(records)));
+
+        assertTrue(error.getMessage().contains("duplicate key k1"), error.getMessage());
+        assertEquals(1, moduleLessonCount());
+    }
+
+    @Test
+    void importLessons_DuplicateSequenceRejected() throws Exception {
+        List<LessonImportRecord> clashWithinImport = List.of(
+                record("k1", 5 * LessonServiceImpl.SEQUENCE_GAP, null, null),
+                record("k2", null, null, null),
+                record("k3", null, null, null),
+                record("k4", 5 * LessonServiceImpl.SEQUENCE_GAP, null, null));
+        List<LessonImportRecord> clashWithExisting = List.of(
+                record("k1", LessonServiceImpl.SEQUENCE_GAP, null, null));
+
+        IllegalArgumentException withinImport = assertThrows(IllegalArgumentException.class,
+                () -> lessonImportService.importLessons(ndjson(clashWithinImport)));
+        IllegalArgumentException withExisting = assertThrows(IllegalArgumentException.class,
+                () -> lessonImportService.importLessons(ndjson(clashWithExisting)));
+
+        assertTrue(withinImport.getMessage().startsWith("Line 4: " + LessonServiceImpl.ERROR_SEQUENCE_EXISTS));
+        assertTrue(withExisting.getMessage().startsWith("Line 1: " + LessonServiceImpl.ERROR_SEQUENCE_EXISTS));
+        assertEquals(1, moduleLessonCount());
+    }
+
+    @Test
+    void importLessons_ForwardKeyReferenceRejected() throws Exception {
+        List<LessonImportRecord> records = List.of(
+                record("k1", null, null, Set.of("k2")),
+                record("k2", null, null, null));
+
+        assertThrows(IllegalArgumentException.class, () -> lessonImportService.importLessons(ndjson(records)));
+        assertEquals(1, moduleLessonCount());
+    }
+
+    private LessonImportRecord record(String key, Integer sequence, Set<Long> prerequisiteIds,
+                                      Set<String> prerequisiteKeys) {
+        return new LessonImportRecord(key, TITLE_PREFIX + key, null, LessonType.THEORY, LessonLevel.BEGINNER,
+                module.getId(), sequence, null, null, null, null, null, prerequisiteIds, prerequisiteKeys, null);
+    }
+
+    private ByteArrayInputStream ndjson(List<LessonImportRecord> records) throws Exception {
+        StringBuilder lines = new StringBuilder();
+        for (LessonImportRecord lessonRecord : records) {
+            lines.append(objectMapper.writeValueAsString(lessonRecord)).append('\n');
+        }
+        return new ByteArrayInputStream(lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Map<String, Long> importedIdsByKey() {
+        return jdbcTemplate.queryForList("select id, title from lessons where module_id = ? and title like ?",
+                        module.getId(), TITLE_PREFIX + "%").stream()
+                .collect(Collectors.toMap(
+                        row -> ((String) row.get("title")).substring(TITLE_PREFIX.length()),
+                        row -> ((Number) row.get("id")).longValue()));
+    }
+
+    private int moduleLessonCount() {
+        return jdbcTemplate.queryForList(MODULE_LESSON_IDS, Long.class, module.getId()).size();
+    }
+}
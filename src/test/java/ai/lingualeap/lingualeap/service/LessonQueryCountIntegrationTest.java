@@ -0,0 +1,189 @@
+package ai.lingualeap.lingualeap.service;
+
+import ai.lingualeap.lingualeap.config.BaseIntegrationTest;
+import ai.lingualeap.lingualeap.dao.entity.Course;
+import ai.lingualeap.lingualeap.dao.entity.Exercise;
+import ai.lingualeap.lingualeap.dao.entity.Lesson;
+import ai.lingualeap.lingualeap.dao.entity.Module;
+import ai.lingualeap.lingualeap.dao.repository.CourseRepository;
+import ai.lingualeap.lingualeap.dao.repository.ExerciseRepository;
+import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
+import ai.lingualeap.lingualeap.dao.repository.ModuleRepository;
+import ai.lingualeap.lingualeap.model.enums.CourseLevel;
+import ai.lingualeap.lingualeap.model.enums.ExerciseType;
+import ai.lingualeap.lingualeap.model.enums.LessonField;
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.enums.PrerequisiteView;
+import ai.lingualeap.lingualeap.model.vo.LearningObjective;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class LessonQueryCountIntegrationTest extends BaseIntegrationTest {
+
+    private static final int SMALL_MODULE_LESSONS = 3;
+    private static final int LARGE_MODULE_LESSONS = 25;
+    // More than hibernate.default_batch_fetch_size (64), so any batch-fetched association needs a second batch
+    private static final int OVERSIZED_LESSONS = 150;
+    private static final long USER_ID = 1L;
+
+    @Autowired
+    private LessonService lessonService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Course course;
+    private Module smallModule;
+    private Module largeModule;
+
+    @BeforeEach
+    void setUp() {
+        course = new Course();
+        course.setTitle("Query Count Course");
+        course.setTargetLanguage("English");
+        course.setSourceLanguage("Spanish");
+        course.setLevel(CourseLevel.A1);
+        course = courseRepository.save(course);
+
+        smallModule = seedModule(1, SMALL_MODULE_LESSONS);
+        largeModule = seedModule(2, LARGE_MODULE_LESSONS);
+        entityManager.flush();
+    }
+
+    @Test
+    void getLessonsByModuleId_RunsConstantStatementsRegardlessOfLessonCount() {
+        Set<LessonField> allFields = EnumSet.allOf(LessonField.class);
+
+        long small = countStatements(() -> lessonService.getLessonsByModuleId(smallModule.getId(), allFields));
+        long large = countStatements(() -> lessonService.getLessonsByModuleId(largeModule.getId(), allFields));
+
+        assertEquals(small, large);
+        assertTrue(large <= 8, "Expected one version query plus one statement per requested part but was " + large);
+    }
+
+    @Test
+    void getAvailableLessonsForUser_RunsConstantStatementsRegardlessOfLessonCount() {
+        lessonService.getAvailableLessonsForUser(USER_ID, smallModule.getId());
+
+        long small = countStatements(() -> lessonService.getAvailableLessonsForUser(USER_ID, smallModule.getId()));
+        long large = countStatements(() -> lessonService.getAvailableLessonsForUser(USER_ID, largeModule.getId()));
+
+        assertEquals(small, large);
+    }
+
+    @Test
+    void getLessonsByModuleId_BeyondBatchFetchSize_RunsSameStatementsAsSmallModule() {
+        Set<LessonField> allFields = EnumSet.allOf(LessonField.class);
+        Module oversizedModule = seedModule(3, OVERSIZED_LESSONS);
+        entityManager.flush();
+
+        long small = countStatements(() -> lessonService.getLessonsByModuleId(smallModule.getId(), allFields));
+        long oversized = countStatements(() ->
+                lessonService.getLessonsByModuleId(oversizedModule.getId(), allFields));
+
+        assertEquals(small, oversized);
+    }
+
+    @Test
+    void getLessonById_PrerequisitesBeyondBatchFetchSize_RunsSameStatementsAsFewPrerequisites() {
+        Module oversizedModule = seedModule(3, OVERSIZED_LESSONS);
+        Lesson fewPrerequisites = seedDependent(smallModule, SMALL_MODULE_LESSONS + 1);
+        Lesson manyPrerequisites = seedDependent(oversizedModule, OVERSIZED_LESSONS + 1);
+        entityManager.flush();
+
+        long few = countStatements(() ->
+                lessonService.getLessonById(fewPrerequisites.getId(), PrerequisiteView.SUMMARY, null));
+        long many = countStatements(() ->
+                lessonService.getLessonById(manyPrerequisites.getId(), PrerequisiteView.SUMMARY, null));
+
+        assertEquals(few, many);
+        assertEquals(OVERSIZED_LESSONS, lessonService.getLessonById(manyPrerequisites.getId(),
+                PrerequisiteView.SUMMARY, null).prerequisites().size());
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // A lesson that requires every other lesson of the module
+    private Lesson seedDependent(Module module, int sequence) {
+        Lesson lesson = new Lesson();
+        lesson.setTitle("Dependent " + sequence);
+        lesson.setType(LessonType.PRACTICE);
+        lesson.setLevel(LessonLevel.BEGINNER);
+        lesson.setModule(module);
+        lesson.setSequence(sequence);
+        lesson.setPrerequisites(new HashSet<>(lessonRepository.findByModuleIdOrderBySequenceAsc(module.getId())));
+        return lessonRepository.save(lesson);
+    }
+
+    private Module seedModule(int sequence, int lessons) {
+        Module module = new Module();
+        module.setTitle("Module " + sequence);
+        module.setSequence(sequence);
+        module.setCourse(course);
+        module = moduleRepository.save(module);
+
+        for (int i = 1; i <= lessons; i++) {
+            LearningObjective objective = new LearningObjective();
+            objective.setObjective("Objective " + i);
+            objective.setRequiredScore(70);
+
+            Lesson lesson = new Lesson();
+            lesson.setTitle("Lesson " + i);
+            lesson.setDescription("Description " + i);
+            lesson.setTheoryContent("Theory " + i);
+            lesson.setType(LessonType.THEORY);
+            lesson.setLevel(LessonLevel.BEGINNER);
+            lesson.setModule(module);
+            lesson.setSequence(i);
+            lesson.setLearningObjectives(new HashSet<>(Set.of(objective)));
+            lesson = lessonRepository.save(lesson);
+
+            Exercise exercise = new Exercise();
+            exercise.setTitle("Exercise " + i);
+            exercise.setPoints(10);
+            exercise.setType(ExerciseType.MULTIPLE_CHOICE);
+            exercise.setSequence(1);
+            exercise.setLesson(lesson);
+            exerciseRepository.save(exercise);
+        }
+        return module;
+    }
+}
@@ -4,35 +4,57 @@ import ai.lingualeap.lingualeap.dao.entity.Lesson;
 import ai.lingualeap.lingualeap.dao.entity.Module;
 import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
 import ai.lingualeap.lingualeap.dao.repository.ModuleRepository;
-import ai.lingualeap.lingualeap.dao.repository.UserProgressRepository;
+import ai.lingualeap.lingualeap.dao.repository.projection.LessonSummary;
+import ai.lingualeap.lingualeap.model.enums.LessonField;
 import ai.lingualeap.lingualeap.model.enums.LessonLevel;
 import ai.lingualeap.lingualeap.model.enums.LessonStatus;
 import ai.lingualeap.lingualeap.model.enums.LessonType;
 import ai.lingualeap.lingualeap.model.request.LessonCreateRequest;
+import ai.lingualeap.lingualeap.model.request.LessonMoveRequest;
 import ai.lingualeap.lingualeap.model.request.LessonUpdateRequest;
 import ai.lingualeap.lingualeap.model.response.LessonResponse;
+import ai.lingualeap.lingualeap.model.response.LessonSummaryResponse;
+import ai.lingualeap.lingualeap.service.cache.CatalogCache;
+import ai.lingualeap.lingualeap.service.cache.ModuleSnapshotCache;
+import ai.lingualeap.lingualeap.service.graph.LessonGraph;
+import ai.lingualeap.lingualeap.service.graph.PrerequisiteClosure;
 import ai.lingualeap.lingualeap.service.impl.LessonServiceImpl;
 import ai.lingualeap.lingualeap.service.mapper.LessonMapper;
+import ai.lingualeap.lingualeap.service.mapper.LessonSummaryAssembler;
+import ai.lingualeap.lingualeap.service.mapper.PrerequisiteRenderer;
+import ai.lingualeap.lingualeap.service.progress.CompletionBitmapCache;
+import ai.lingualeap.lingualeap.service.retry.OptimisticLockRetry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -50,11 +72,35 @@ class LessonServiceTest {
     private ModuleRepository moduleRepository;
 
     @Mock
-    private UserProgressRepository userProgressRepository;
+    private CompletionBitmapCache completionBitmapCache;
 
     @Mock
     private LessonMapper lessonMapper;
 
+    @Mock
+    private LessonSummaryAssembler lessonSummaryAssembler;
+
+    @Mock
+    private PrerequisiteRenderer prerequisiteRenderer;
+
+    @Mock
+    private CatalogCache catalogCache;
+
+    @Mock
+    private ModuleSnapshotCache moduleSnapshotCache;
+
+    @Mock
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Mock
+    private LessonGraph lessonGraph;
+
+    @Mock
+    private PrerequisiteClosure prerequisiteClosure;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private LessonServiceImpl lessonService;
 
@@ -66,6 +112,14 @@ class LessonServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Run retried writes inline, as a single attempt
+        lenient().when(optimisticLockRetry.execute(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(optimisticLockRetry).run(anyString(), any());
+
         testModule = new Module();
         testModule.setId(1L);
         testModule.setTitle("Test Module");
@@ -125,7 +179,8 @@ class LessonServiceTest {
                 null,
                 null,
                 List.of(),
-                Set.of(),
+                List.of(),
+                null,
                 Set.of(),
                 null,
                 null
@@ -138,6 +193,7 @@ class LessonServiceTest {
         when(lessonMapper.toEntity(createRequest)).thenReturn(testLesson);
         when(lessonRepository.save(any(Lesson.class))).thenReturn(testLesson);
         when(lessonMapper.toResponse(testLesson)).thenReturn(lessonResponse);
+        when(prerequisiteRenderer.render(lessonResponse, testLesson)).thenReturn(lessonResponse);
 
         LessonResponse result = lessonService.createLesson(createRequest);
 
@@ -150,6 +206,21 @@ class LessonServiceTest {
         verify(lessonMapper).toResponse(any(Lesson.class));
     }
 
+    @Test
+    void createLesson_AutoAssignedSequence_LocksModuleBeforeReadingMax() {
+        when(moduleRepository.findById(1L)).thenReturn(Optional.of(testModule));
+        when(lessonMapper.toEntity(createRequest)).thenReturn(testLesson);
+        when(lessonRepository.findMaxSequenceByModuleId(1L)).thenReturn(LessonServiceImpl.SEQUENCE_GAP);
+        when(lessonRepository.save(any(Lesson.class))).thenReturn(testLesson);
+
+        lessonService.createLesson(createRequest);
+
+        InOrder order = inOrder(moduleRepository, lessonRepository);
+        order.verify(moduleRepository).lockExistingIds(List.of(1L));
+        order.verify(lessonRepository).findMaxSequenceByModuleId(1L);
+        assertEquals(2 * LessonServiceImpl.SEQUENCE_GAP, testLesson.getSequence());
+    }
+
     @Test
     void createLesson_ModuleNotFound() {
         when(moduleRepository.findById(1L)).thenReturn(Optional.empty());
@@ -166,6 +237,7 @@ class LessonServiceTest {
         when(lessonRepository.findById(1L)).thenReturn(Optional.of(testLesson));
         when(lessonRepository.save(any(Lesson.class))).thenReturn(testLesson);
         when(lessonMapper.toResponse(testLesson)).thenReturn(lessonResponse);
+        when(prerequisiteRenderer.render(lessonResponse, testLesson)).thenReturn(lessonResponse);
 
         LessonResponse result = lessonService.updateLesson(1L, updateRequest);
 
@@ -177,22 +249,99 @@ class LessonServiceTest {
     @Test
     void searchLessons_Success() {
         PageRequest pageRequest = PageRequest.of(0, 10);
-        Page<Lesson> lessonPage = new PageImpl<>(List.of(testLesson));
+        LessonSummary summary = new LessonSummary(1L, TEST_LESSON_TITLE, LessonType.THEORY, LessonLevel.BEGINNER,
+                LessonStatus.DRAFT, 1, 70, 30, false, 1L, null, null);
+        LessonSummaryResponse summaryResponse = new LessonSummaryResponse(1L, TEST_LESSON_TITLE, LessonType.THEORY,
+                LessonLevel.BEGINNER, LessonStatus.DRAFT, 1, 70, 30, false, 1L, null, null,
+                null, null, null, null, null, null, null);
+        Set<LessonField> fields = EnumSet.noneOf(LessonField.class);
 
-        when(lessonRepository.findAll(any(Specification.class), any(PageRequest.class)))
-                .thenReturn(lessonPage);
-        when(lessonMapper.toResponse(any(Lesson.class))).thenReturn(lessonResponse);
+        when(lessonRepository.searchSummaries(LessonType.THEORY, LessonLevel.BEGINNER, LessonStatus.DRAFT, 1L,
+                pageRequest)).thenReturn(new PageImpl<>(List.of(summary), pageRequest, 1));
+        when(lessonSummaryAssembler.toResponses(List.of(summary), fields)).thenReturn(List.of(summaryResponse));
 
-        Page<LessonResponse> result = lessonService.searchLessons(
+        Page<LessonSummaryResponse> result = lessonService.searchLessons(
                 LessonType.THEORY,
                 LessonLevel.BEGINNER,
                 LessonStatus.DRAFT,
                 1L,
+                fields,
                 pageRequest
         );
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
-        verify(lessonRepository).findAll(any(Specification.class), any(PageRequest.class));
+        assertEquals(TEST_LESSON_TITLE, result.getContent().get(0).title());
+        verify(lessonRepository, never()).findAll(any(Specification.class), any(PageRequest.class));
+        verify(lessonMapper, never()).toResponse(any(Lesson.class));
+    }
+
+    @Test
+    void addPrerequisite_CircularDependency() {
+        Lesson prerequisite = new Lesson();
+        prerequisite.setId(2L);
+        testLesson.setPrerequisites(new HashSet<>());
+
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(testLesson));
+        when(lessonRepository.findById(2L)).thenReturn(Optional.of(prerequisite));
+        when(prerequisiteClosure.wouldCreateCycle(1L, 2L)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                lessonService.addPrerequisite(1L, 2L)
+        );
+
+        verify(lessonRepository, never()).save(any(Lesson.class));
+    }
+
+    @Test
+    void moveLesson_IntoGap_RewritesOnlyMovedLesson() {
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(testLesson));
+        when(lessonRepository.findSequenceByIdAndModuleId(2L, 1L)).thenReturn(Optional.of(2048));
+        when(lessonRepository.findPreviousSequence(1L, 2048, 1L)).thenReturn(1024);
+        when(lessonRepository.save(testLesson)).thenReturn(testLesson);
+        when(lessonMapper.toResponse(testLesson)).thenReturn(lessonResponse);
+        when(prerequisiteRenderer.render(lessonResponse, testLesson)).thenReturn(lessonResponse);
+
+        lessonService.moveLesson(1L, new LessonMoveRequest(2L, null));
+
+        assertEquals(1536, testLesson.getSequence());
+        verify(lessonRepository, never()).rebalanceSequences(any(), anyInt());
+    }
+
+    @Test
+    void moveLesson_BothAnchors() {
+        assertThrows(IllegalArgumentException.class, () ->
+                lessonService.moveLesson(1L, new LessonMoveRequest(2L, 3L))
+        );
+
+        verify(lessonRepository, never()).findById(any());
+    }
+
+    @Test
+    void getAvailableLessonsForUser_UnknownLessonChecksPrerequisitesInDatabase() {
+        Lesson prerequisite = new Lesson();
+        prerequisite.setId(2L);
+        testLesson.setPrerequisites(new HashSet<>(Set.of(prerequisite)));
+        when(lessonRepository.findWithModuleByModuleIdOrderBySequenceAsc(1L)).thenReturn(List.of(testLesson));
+        when(completionBitmapCache.getCompletedLessons(5L)).thenReturn(new RoaringBitmap());
+        when(lessonGraph.denseIndex(1L)).thenReturn(LessonGraph.UNKNOWN_LESSON);
+        when(completionBitmapCache.isCompleted(5L, 2L)).thenReturn(false);
+
+        lessonService.getAvailableLessonsForUser(5L, 1L);
+
+        verify(lessonGraph, never()).allPrerequisitesMatch(any(), any());
+        verify(lessonMapper).toResponseList(List.of());
+    }
+
+    @Test
+    void deleteLesson_HasDependents() {
+        when(lessonRepository.findById(1L)).thenReturn(Optional.of(testLesson));
+        when(prerequisiteClosure.hasDependents(1L)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () ->
+                lessonService.deleteLesson(1L)
+        );
+
+        verify(lessonRepository, never()).delete(any(Lesson.class));
     }
 }
@@ -2,18 +2,27 @@ package ai.lingualeap.lingualeap.service;
 
 import ai.lingualeap.lingualeap.dao.entity.User;
 import ai.lingualeap.lingualeap.dao.repository.UserRepository;
+import ai.lingualeap.lingualeap.dao.repository.jdbc.UserStatusJdbcRepository;
 import ai.lingualeap.lingualeap.model.enums.UserStatus;
+import ai.lingualeap.lingualeap.model.request.UserBulkStatusRequest;
 import ai.lingualeap.lingualeap.model.request.UserCreateRequest;
+import ai.lingualeap.lingualeap.model.response.UserBulkStatusResponse;
 import ai.lingualeap.lingualeap.model.response.UserResponse;
+import ai.lingualeap.lingualeap.service.cache.UserIdentifierFilter;
+import ai.lingualeap.lingualeap.service.event.UserTokensRevokedEvent;
+import ai.lingualeap.lingualeap.service.event.UsersStatusChangedEvent;
 import ai.lingualeap.lingualeap.service.impl.UserServiceImpl;
 import ai.lingualeap.lingualeap.service.mapper.UserMapper;
+import ai.lingualeap.lingualeap.service.retry.OptimisticLockRetry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -21,12 +30,24 @@ import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,12 +56,25 @@ class UserServiceTest {
 
     private static final String USER_NAME = "testuser";
     private static final String EMAIL_ADDRESS = "test@example.com";
+    private static final String ADMIN = "admin";
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserIdentifierFilter userIdentifierFilter;
+
+    @Mock
+    private UserStatusJdbcRepository userStatusRepository;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -50,6 +84,14 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Run retried writes inline, as a single attempt
+        lenient().when(optimisticLockRetry.execute(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(optimisticLockRetry).run(anyString(), any());
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setUsername(USER_NAME);
@@ -82,6 +124,23 @@ class UserServiceTest {
         assertEquals(EMAIL_ADDRESS, result.getEmail());
 
         verify(userRepository).save(any(User.class));
+        verify(userIdentifierFilter).add(USER_NAME, EMAIL_ADDRESS);
+    }
+
+    @Test
+    void existsByUsername_DefinitelyAvailable_SkipsDatabase() {
+        when(userIdentifierFilter.mightContainUsername(USER_NAME)).thenReturn(false);
+
+        assertFalse(userService.existsByUsername(USER_NAME));
+        verify(userRepository, never()).existsByUsername(anyString());
+    }
+
+    @Test
+    void existsByEmail_PossibleHit_ConfirmedInDatabase() {
+        when(userIdentifierFilter.mightContainEmail(EMAIL_ADDRESS)).thenReturn(true);
+        when(userRepository.existsByEmail(EMAIL_ADDRESS)).thenReturn(false);
+
+        assertFalse(userService.existsByEmail(EMAIL_ADDRESS));
     }
 
     @Test
@@ -142,6 +201,96 @@ class UserServiceTest {
         userService.deactivateUser(1L);
 
         assertEquals(UserStatus.INACTIVE, testUser.getStatus());
+        assertNotNull(testUser.getTokensNotBefore());
         verify(userRepository).findById(1L);
+        verify(eventPublisher).publishEvent(new UserTokensRevokedEvent(1L, testUser.getTokensNotBefore()));
+    }
+
+    @Test
+    void updateUserStatus_Active_KeepsTokens() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        userService.updateUserStatus(1L, UserStatus.ACTIVE);
+
+        assertNull(testUser.getTokensNotBefore());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateUserStatus_Banned_RevokesTokens() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        userService.updateUserStatus(1L, UserStatus.BANNED);
+
+        assertEquals(UserStatus.BANNED, testUser.getStatus());
+        verify(eventPublisher).publishEvent(new UserTokensRevokedEvent(1L, testUser.getTokensNotBefore()));
+    }
+
+    @Test
+    void updateUserStatuses_BannedByIds_RevokesTokensOfChangedUsers() {
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(userStatusRepository.updateStatusByIds(eq(ids), eq(UserStatus.BANNED), any(), any(), eq(ADMIN)))
+                .thenReturn(List.of(1L, 3L));
+
+        UserBulkStatusResponse response = userService.updateUserStatuses(
+                new UserBulkStatusRequest(UserStatus.BANNED, ids, null, null, null), ADMIN);
+
+        assertEquals(2, response.updated());
+        ArgumentCaptor<UsersStatusChangedEvent> event = ArgumentCaptor.forClass(UsersStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(1L, 3L), event.getValue().userIds());
+        assertNotNull(event.getValue().tokensNotBefore());
+    }
+
+    @Test
+    void updateUserStatuses_ActiveByFilter_KeepsTokens() {
+        when(userStatusRepository.findIdsForStatusChange(eq(UserStatus.INACTIVE), isNull(), isNull(),
+                eq(UserStatus.ACTIVE), eq(ADMIN), anyInt()))
+                .thenReturn(List.of(4L));
+        when(userStatusRepository.updateStatusByIds(eq(List.of(4L)), eq(UserStatus.ACTIVE), any(), isNull(),
+                eq(ADMIN)))
+                .thenReturn(List.of(4L));
+
+        UserBulkStatusResponse response = userService.updateUserStatuses(
+                new UserBulkStatusRequest(UserStatus.ACTIVE, null, UserStatus.INACTIVE, null, null), ADMIN);
+
+        assertEquals(1, response.updated());
+        verify(eventPublisher).publishEvent(new UsersStatusChangedEvent(List.of(4L), UserStatus.ACTIVE, null));
+    }
+
+    @Test
+    void updateUserStatuses_FilterAboveCap_RejectedBeforeUpdate() {
+        List<Long> matching = LongStream.rangeClosed(1, 10_001).boxed().toList();
+        when(userStatusRepository.findIdsForStatusChange(eq(UserStatus.ACTIVE), isNull(), isNull(),
+                eq(UserStatus.BANNED), eq(ADMIN), eq(10_001)))
+                .thenReturn(matching);
+        UserBulkStatusRequest request = new UserBulkStatusRequest(UserStatus.BANNED, null, UserStatus.ACTIVE,
+                null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> userService.updateUserStatuses(request, ADMIN));
+        verify(userStatusRepository, never()).updateStatusByIds(any(), any(), any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateUserStatuses_PublishesChangesInBatches() {
+        List<Long> ids = LongStream.rangeClosed(1, 2_500).boxed().toList();
+        when(userStatusRepository.updateStatusByIds(eq(ids), eq(UserStatus.INACTIVE), any(), any(), eq(ADMIN)))
+                .thenReturn(ids);
+
+        userService.updateUserStatuses(new UserBulkStatusRequest(UserStatus.INACTIVE, ids, null, null, null), ADMIN);
+
+        ArgumentCaptor<UsersStatusChangedEvent> events = ArgumentCaptor.forClass(UsersStatusChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertEquals(List.of(1_000, 1_000, 500),
+                events.getAllValues().stream().map(event -> event.userIds().size()).toList());
+    }
+
+    @Test
+    void updateUserStatuses_NeitherIdsNorFilter_Rejected() {
+        UserBulkStatusRequest request = new UserBulkStatusRequest(UserStatus.BANNED, List.of(), null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> userService.updateUserStatuses(request, ADMIN));
+        verifyNoInteractions(userStatusRepository);
     }
 }
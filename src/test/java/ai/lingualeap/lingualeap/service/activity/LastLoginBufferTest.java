@@ -0,0 +1,78 @@
+package ai.lingualeap.lingualeap.service.activity;
+
+import ai.lingualeap.lingualeap.dao.repository.jdbc.UserLoginJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LastLoginBufferTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2026, 3, 2, 8, 0);
+
+    @Mock
+    private UserLoginJdbcRepository userLoginRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LastLoginBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new LastLoginBuffer(userLoginRepository, meterRegistry, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.shutdown();
+    }
+
+    @Test
+    void flush_CoalescesLoginsToLatestPerUser() {
+        buffer.record(1L, MORNING);
+        buffer.record(1L, MORNING.plusMinutes(5));
+        buffer.record(1L, MORNING.plusMinutes(2));
+        buffer.record(2L, MORNING);
+
+        buffer.flush();
+
+        verify(userLoginRepository).updateLastLogins(Map.of(1L, MORNING.plusMinutes(5), 2L, MORNING));
+        assertEquals(0, meterRegistry.get("users.last-login.pending").gauge().value());
+    }
+
+    @Test
+    void flush_KeepsEntriesWhenWriteFails() {
+        buffer.record(1L, MORNING);
+        when(userLoginRepository.updateLastLogins(anyMap()))
+                .thenThrow(new IllegalStateException("connection refused"))
+                .thenReturn(1);
+
+        buffer.flush();
+        assertEquals(1, meterRegistry.get("users.last-login.pending").gauge().value());
+
+        buffer.flush();
+        verify(userLoginRepository, times(2)).updateLastLogins(Map.of(1L, MORNING));
+        assertEquals(0, meterRegistry.get("users.last-login.pending").gauge().value());
+    }
+
+    @Test
+    void flush_SkipsDatabaseWhenNothingIsPending() {
+        buffer.flush();
+
+        verify(userLoginRepository, never()).updateLastLogins(anyMap());
+    }
+}
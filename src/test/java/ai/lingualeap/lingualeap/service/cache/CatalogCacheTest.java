@@ -0,0 +1,86 @@
+package ai.lingualeap.lingualeap.service.cache;
+
+import ai.lingualeap.lingualeap.model.enums.LessonField;
+import ai.lingualeap.lingualeap.model.response.LessonSummaryResponse;
+import ai.lingualeap.lingualeap.service.event.LessonChangedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonsReorderedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogCacheTest {
+
+    private static final Long MODULE_ID = 3L;
+    private static final Long LESSON_ID = 7L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CatalogCache(meterRegistry, 100, 100, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getModuleLessons_LoadsOncePerFieldSet() {
+        Set<LessonField> fields = EnumSet.of(LessonField.DESCRIPTION);
+
+        cache.getModuleLessons(MODULE_ID, fields, this::load);
+        cache.getModuleLessons(MODULE_ID, EnumSet.of(LessonField.DESCRIPTION), this::load);
+        cache.getModuleLessons(MODULE_ID, EnumSet.noneOf(LessonField.class), this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "catalog.module-lessons")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void onLessonChanged_EvictsModuleLists() {
+        cache.getModuleLessons(MODULE_ID, Set.of(), this::load);
+
+        cache.onLessonChanged(new LessonChangedEvent(LESSON_ID, MODULE_ID, null));
+        Versioned<List<LessonSummaryResponse>> reloaded = cache.getModuleLessons(MODULE_ID, Set.of(), this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals("v2", reloaded.versions());
+    }
+
+    @Test
+    void getModuleLessons_DiscardsLoadThatOverlappedEviction() {
+        Versioned<List<LessonSummaryResponse>> result = cache.getModuleLessons(MODULE_ID, Set.of(), () -> {
+            if (loads.get() == 0) {
+                // A commit lands while the first load is still reading
+                cache.onLessonChanged(new LessonChangedEvent(LESSON_ID, MODULE_ID, null));
+            }
+            return load();
+        });
+
+        assertEquals(2, loads.get());
+        assertEquals("v2", result.versions());
+    }
+
+    @Test
+    void onLessonsReordered_EvictsReorderedLessons() {
+        cache.getLesson(LESSON_ID, id -> new Versioned<>("v" + loads.incrementAndGet(), null));
+
+        cache.onLessonsReordered(new LessonsReorderedEvent(MODULE_ID, Set.of(LESSON_ID)));
+        Versioned<?> reloaded = cache.getLesson(LESSON_ID, id -> new Versioned<>("v" + loads.incrementAndGet(), null));
+
+        assertEquals("v2", reloaded.versions());
+    }
+
+    private Versioned<List<LessonSummaryResponse>> load() {
+        return new Versioned<>("v" + loads.incrementAndGet(), List.of());
+    }
+}
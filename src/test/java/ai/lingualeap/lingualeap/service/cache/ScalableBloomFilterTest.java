@@ -0,0 +1,42 @@
+package ai.lingualeap.lingualeap.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void put_GrowsPastInitialCapacityWithoutFalseNegatives() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        long initialBytes = filter.sizeInBytes();
+
+        for (int i = 0; i < 1_000; i++) {
+            filter.put("user" + i + "@lingualeap.ai");
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@lingualeap.ai"));
+        }
+        assertEquals(1_000, filter.insertions());
+        assertTrue(filter.sizeInBytes() > initialBytes);
+    }
+
+    @Test
+    void falsePositiveRate_StaysBoundedAfterGrowth() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("taken" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 20_000; i++) {
+            if (filter.mightContain("free" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(filter.falsePositiveRate() < 0.025, "estimated rate: " + filter.falsePositiveRate());
+        assertTrue(falsePositives < 20_000 * 0.04, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,91 @@
+package ai.lingualeap.lingualeap.service.export;
+
+import ai.lingualeap.lingualeap.model.enums.ExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserRowWriterTest {
+
+    private static final String HEADER =
+            "id,username,email,first_name,last_name,status,roles,created_at,last_login_at\r\n";
+
+    @Test
+    void csvQuotesOnlyValuesThatNeedIt() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        UserRowWriter writer = UserRowWriter.create(ExportFormat.CSV, output);
+
+        writer.processRow(row(1L, "anna", "anna@test.com", "Anna, Maria", "O\"Neil", null));
+        writer.processRow(row(2L, "ben", "ben@test.com", "Ben", "Line\nBreak", "2024-05-01T10:00:00.000000"));
+        writer.finish();
+
+        assertEquals(HEADER +
+                        "1,anna,anna@test.com,\"Anna, Maria\",\"O\"\"Neil\",ACTIVE,ADMIN;USER," +
+                        "2024-01-01T00:00:00.000000,\r\n" +
+                        "2,ben,ben@test.com,Ben,\"Line\nBreak\",ACTIVE,ADMIN;USER,2024-01-01T00:00:00.000000," +
+                        "2024-05-01T10:00:00.000000\r\n",
+                output.toString(StandardCharsets.UTF_8));
+        assertEquals(2, writer.rowCount());
+    }
+
+    @Test
+    void csvNeutralizesSpreadsheetFormulas() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        UserRowWriter writer = UserRowWriter.create(ExportFormat.CSV, output);
+
+        writer.processRow(row(1L, "anna", "anna@test.com", "=HYPERLINK(\"http://x\")", "+1", null));
+        writer.processRow(row(2L, "ben", "ben@test.com", "@SUM(A1)", "\tTab", null));
+        writer.processRow(row(3L, "cleo", "cleo@test.com", "-2", "Smith", null));
+        writer.finish();
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertTrue(lines[1].startsWith("1,anna,anna@test.com,\"'=HYPERLINK(\"\"http://x\"\")\",'+1,"));
+        assertTrue(lines[2].startsWith("2,ben,ben@test.com,'@SUM(A1),'\tTab,"));
+        assertTrue(lines[3].startsWith("3,cleo,cleo@test.com,'-2,Smith,"));
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        UserRowWriter writer = UserRowWriter.create(ExportFormat.NDJSON, output);
+
+        writer.processRow(row(1L, "anna", "anna@test.com", "Anna", "Smith", null));
+        writer.processRow(row(2L, "ben", "ben@test.com", "Ben", "Jones", "2024-05-01T10:00:00.000000"));
+        writer.finish();
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertTrue(first.get("id").isNumber());
+        assertEquals("anna", first.get("username").asText());
+        assertTrue(first.get("last_login_at").isNull());
+        assertEquals("2024-05-01T10:00:00.000000", objectMapper.readTree(lines[1]).get("last_login_at").asText());
+        assertEquals(2, writer.rowCount());
+    }
+
+    private static ResultSet row(long id, String username, String email, String firstName, String lastName,
+                                 String lastLoginAt) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(id);
+        when(resultSet.getString(1)).thenReturn(Long.toString(id));
+        when(resultSet.getString(2)).thenReturn(username);
+        when(resultSet.getString(3)).thenReturn(email);
+        when(resultSet.getString(4)).thenReturn(firstName);
+        when(resultSet.getString(5)).thenReturn(lastName);
+        when(resultSet.getString(6)).thenReturn("ACTIVE");
+        when(resultSet.getString(7)).thenReturn("ADMIN;USER");
+        when(resultSet.getString(8)).thenReturn("2024-01-01T00:00:00.000000");
+        when(resultSet.getString(9)).thenReturn(lastLoginAt);
+        return resultSet;
+    }
+}
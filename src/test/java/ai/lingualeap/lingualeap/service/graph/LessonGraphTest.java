@@ -0,0 +1,158 @@
+package ai.lingualeap.lingualeap.service.graph;
+
+import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
+import ai.lingualeap.lingualeap.dao.repository.projection.PrerequisiteEdge;
+import ai.lingualeap.lingualeap.service.event.LessonChangedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonDeletedEvent;
+import ai.lingualeap.lingualeap.service.event.LessonsImportedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LessonGraphTest {
+
+    private static final Long MODULE_ID = 1L;
+
+    @Mock
+    private LessonRepository lessonRepository;
+
+    private LessonGraph lessonGraph;
+
+    @BeforeEach
+    void setUp() {
+        lessonGraph = new LessonGraph(lessonRepository, Duration.ofMinutes(1));
+        // 1 <- 2 <- 3 <- 4, and 5 stands alone
+        when(lessonRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+        when(lessonRepository.findAllPrerequisiteEdges()).thenReturn(List.of(
+                edge(2L, 1L),
+                edge(3L, 2L),
+                edge(4L, 3L)
+        ));
+        lessonGraph.warmUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        lessonGraph.shutdown();
+    }
+
+    @Test
+    void denseIndex_UnknownLessonIsNotAdded() {
+        assertEquals(LessonGraph.UNKNOWN_LESSON, lessonGraph.denseIndex(99L));
+        assertEquals(LessonGraph.UNKNOWN_LESSON, lessonGraph.denseIndex(99L));
+        assertArrayEquals(new long[0], lessonGraph.getPrerequisiteIds(99L));
+    }
+
+    @Test
+    void allPrerequisitesMatch_UnknownLessonDoesNotMatch() {
+        assertFalse(lessonGraph.allPrerequisitesMatch(99L, index -> true));
+        assertTrue(lessonGraph.allPrerequisitesMatch(5L, index -> false));
+    }
+
+    @Test
+    void refresh_PicksUpChangesFromOtherNodesWithoutReindexing() {
+        int[] before = {lessonGraph.denseIndex(1L), lessonGraph.denseIndex(3L), lessonGraph.denseIndex(5L)};
+        // Another node deleted lesson 4, added lesson 6 after 5 and moved lesson 3 onto lesson 5
+        when(lessonRepository.findGraphFingerprint()).thenReturn("changed");
+        when(lessonRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 5L, 6L));
+        when(lessonRepository.findAllPrerequisiteEdges()).thenReturn(List.of(
+                edge(2L, 1L),
+                edge(3L, 5L),
+                edge(6L, 5L)
+        ));
+
+        lessonGraph.refresh();
+
+        assertArrayEquals(before,
+                new int[]{lessonGraph.denseIndex(1L), lessonGraph.denseIndex(3L), lessonGraph.denseIndex(5L)});
+        assertEquals(LessonGraph.UNKNOWN_LESSON, lessonGraph.denseIndex(4L));
+        assertArrayEquals(new long[]{5L}, lessonGraph.getPrerequisiteIds(3L));
+        assertArrayEquals(new long[]{5L}, lessonGraph.getPrerequisiteIds(6L));
+        assertArrayEquals(new long[]{1L}, lessonGraph.getPrerequisiteIds(2L));
+    }
+
+    @Test
+    void refresh_SkipsReloadWhenFingerprintIsUnchanged() {
+        lessonGraph.refresh();
+
+        verify(lessonRepository, times(1)).findAllIds();
+        verify(lessonRepository, times(1)).findAllPrerequisiteEdges();
+    }
+
+    @Test
+    void onLessonsImported_AddsLessonsWithoutReindexing() {
+        int[] before = {lessonGraph.denseIndex(1L), lessonGraph.denseIndex(4L), lessonGraph.denseIndex(5L)};
+        Map<Long, Set<Long>> imported = new LinkedHashMap<>();
+        imported.put(6L, Set.of(4L));
+        imported.put(7L, Set.of(6L, 5L));
+
+        lessonGraph.onLessonsImported(new LessonsImportedEvent(Set.of(MODULE_ID), imported));
+
+        assertArrayEquals(before,
+                new int[]{lessonGraph.denseIndex(1L), lessonGraph.denseIndex(4L), lessonGraph.denseIndex(5L)});
+        assertArrayEquals(new long[]{4L}, lessonGraph.getPrerequisiteIds(6L));
+        assertArrayEquals(new long[]{5L, 6L}, Arrays.stream(lessonGraph.getPrerequisiteIds(7L)).sorted().toArray());
+        assertArrayEquals(new int[]{2, 1, 0}, lessonGraph.topologicalOrder(List.of(7L, 6L, 4L)));
+        verify(lessonRepository, times(1)).findAllIds();
+    }
+
+    @Test
+    void onLessonChanged_ReplacesPrerequisites() {
+        lessonGraph.onLessonChanged(new LessonChangedEvent(3L, MODULE_ID, Set.of(5L)));
+
+        assertArrayEquals(new long[]{5L}, lessonGraph.getPrerequisiteIds(3L));
+        // 3 now waits only for 5, no longer for 2
+        assertArrayEquals(new int[]{1, 0, 2}, lessonGraph.topologicalOrder(List.of(3L, 5L, 2L)));
+    }
+
+    @Test
+    void onLessonDeleted_RemovesEdgesInBothDirections() {
+        lessonGraph.onLessonDeleted(new LessonDeletedEvent(4L, MODULE_ID));
+        assertEquals(LessonGraph.UNKNOWN_LESSON, lessonGraph.denseIndex(4L));
+        assertArrayEquals(new long[0], lessonGraph.getPrerequisiteIds(4L));
+
+        lessonGraph.onLessonChanged(new LessonChangedEvent(6L, MODULE_ID, Set.of(1L)));
+        assertArrayEquals(new long[]{1L}, lessonGraph.getPrerequisiteIds(6L));
+        assertArrayEquals(new int[]{1, 0}, lessonGraph.topologicalOrder(List.of(6L, 1L)));
+    }
+
+    @Test
+    void topologicalOrder_RespectsPrerequisitesThenInputOrder() {
+        int[] order = lessonGraph.topologicalOrder(List.of(4L, 3L, 2L, 1L, 5L));
+
+        assertArrayEquals(new int[]{3, 2, 1, 0, 4}, order);
+    }
+
+    private static PrerequisiteEdge edge(Long lessonId, Long prerequisiteId) {
+        return new PrerequisiteEdge() {
+            @Override
+            public Long getLessonId() {
+                return lessonId;
+            }
+
+            @Override
+            public Long getPrerequisiteId() {
+                return prerequisiteId;
+            }
+        };
+    }
+}
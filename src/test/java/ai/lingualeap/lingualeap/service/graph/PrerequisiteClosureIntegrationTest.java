@@ -0,0 +1,186 @@
+package ai.lingualeap.lingualeap.service.graph;
+
+import ai.lingualeap.lingualeap.config.BaseIntegrationTest;
+import ai.lingualeap.lingualeap.dao.entity.Course;
+import ai.lingualeap.lingualeap.dao.entity.Module;
+import ai.lingualeap.lingualeap.dao.repository.CourseRepository;
+import ai.lingualeap.lingualeap.dao.repository.LessonPrerequisiteClosureRepository;
+import ai.lingualeap.lingualeap.dao.repository.ModuleRepository;
+import ai.lingualeap.lingualeap.model.enums.CourseLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.request.LessonCreateRequest;
+import ai.lingualeap.lingualeap.service.LessonService;
+import ai.lingualeap.lingualeap.service.impl.LessonServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrerequisiteClosureIntegrationTest extends BaseIntegrationTest {
+
+    private static final String MODULE_LESSON_IDS = "select id from lessons where module_id = ?";
+
+    @Autowired
+    private LessonService lessonService;
+
+    @Autowired
+    private PrerequisiteClosure prerequisiteClosure;
+
+    @Autowired
+    private LessonPrerequisiteClosureRepository closureRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Course course;
+    private Module module;
+    private Long first;
+    private Long second;
+    private Long third;
+
+    @BeforeEach
+    void setUp() {
+        course = new Course();
+        course.setTitle("Closure Course");
+        course.setTargetLanguage("English");
+        course.setSourceLanguage("Spanish");
+        course.setLevel(CourseLevel.A1);
+        course = courseRepository.save(course);
+
+        module = new Module();
+        module.setTitle("Closure Module");
+        module.setSequence(1);
+        module.setCourse(course);
+        module = moduleRepository.save(module);
+
+        // first <- second <- third
+        first = createLesson("First", Set.of());
+        second = createLesson("Second", Set.of(first));
+        third = createLesson("Third", Set.of(second));
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<Long> lessonIds = jdbcTemplate.queryForList(MODULE_LESSON_IDS, Long.class, module.getId());
+        for (Long lessonId : lessonIds) {
+            jdbcTemplate.update("delete from lesson_prerequisite_closure where ancestor_id = ? or descendant_id = ?",
+                    lessonId, lessonId);
+            jdbcTemplate.update("delete from lesson_prerequisites where lesson_id = ? or prerequisite_id = ?",
+                    lessonId, lessonId);
+        }
+        jdbcTemplate.update("delete from lessons where module_id = ?", module.getId());
+        moduleRepository.deleteById(module.getId());
+        courseRepository.deleteById(course.getId());
+    }
+
+    @Test
+    void createLesson_WritesTransitivePaths() {
+        assertEquals(List.of(second, first), closureRepository.findAncestorIds(third));
+        assertEquals(2, depth(first, third));
+    }
+
+    @Test
+    void addPrerequisite_ShortcutKeepsShortestDepth() {
+        lessonService.addPrerequisite(third, first);
+
+        assertEquals(1, depth(first, third));
+        assertEquals(List.of(first, second), closureRepository.findAncestorIds(third));
+    }
+
+    @Test
+    void removePrerequisite_DropsPathsThroughTheEdge() {
+        Long fourth = createLesson("Fourth", Set.of(third));
+
+        lessonService.removePrerequisite(second, first);
+
+        assertEquals(List.of(), closureRepository.findAncestorIds(second));
+        assertEquals(List.of(third, second), closureRepository.findAncestorIds(fourth));
+    }
+
+    @Test
+    void addPrerequisite_TransitiveCycleRejected() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> lessonService.addPrerequisite(first, third));
+
+        assertEquals(LessonServiceImpl.ERROR_CIRCULAR_DEPENDENCY, error.getMessage());
+        assertEquals(List.of(), closureRepository.findAncestorIds(first));
+    }
+
+    @Test
+    void rebuild_RestoresPathsFromEdges() {
+        jdbcTemplate.update("delete from lesson_prerequisite_closure where descendant_id = ?", third);
+
+        prerequisiteClosure.rebuild();
+
+        assertEquals(List.of(second, first), closureRepository.findAncestorIds(third));
+        assertEquals(0, depth(third, third));
+    }
+
+    @Test
+    void addPrerequisite_OppositeEdgesFromConcurrentTransactions_OnlyOneCommits() throws Exception {
+        Long fourth = createLesson("Fourth", Set.of());
+        CountDownLatch firstEdgeWritten = new CountDownLatch(1);
+
+        // The first transaction stays open after its insert, so the second one must wait for the edge lock
+        CompletableFuture<Void> forward = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    lessonService.addPrerequisite(fourth, third);
+                    firstEdgeWritten.countDown();
+                    pause();
+                }));
+        assertTrue(firstEdgeWritten.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Void> backward = CompletableFuture.runAsync(() ->
+                lessonService.addPrerequisite(first, fourth));
+
+        forward.get(10, TimeUnit.SECONDS);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> backward.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertEquals(List.of(), closureRepository.findAncestorIds(first));
+        assertEquals(List.of(third, second, first), closureRepository.findAncestorIds(fourth));
+    }
+
+    private Long createLesson(String title, Set<Long> prerequisiteIds) {
+        return lessonService.createLesson(new LessonCreateRequest(title, null, LessonType.THEORY,
+                LessonLevel.BEGINNER, module.getId(), null, null, null, null, null, null,
+                prerequisiteIds, null)).id();
+    }
+
+    private int depth(Long ancestorId, Long descendantId) {
+        return jdbcTemplate.queryForObject("""
+                select depth from lesson_prerequisite_closure
+                where ancestor_id = ? and descendant_id = ?
+                """, Integer.class, ancestorId, descendantId);
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ai.lingualeap.lingualeap.service.mapper;
+
+import ai.lingualeap.lingualeap.dao.entity.Lesson;
+import ai.lingualeap.lingualeap.dao.repository.LessonRepository;
+import ai.lingualeap.lingualeap.dao.repository.projection.LessonSummary;
+import ai.lingualeap.lingualeap.model.enums.LessonLevel;
+import ai.lingualeap.lingualeap.model.enums.LessonStatus;
+import ai.lingualeap.lingualeap.model.enums.LessonType;
+import ai.lingualeap.lingualeap.model.enums.PrerequisiteView;
+import ai.lingualeap.lingualeap.model.response.LessonResponse;
+import ai.lingualeap.lingualeap.model.response.PrerequisiteResponse;
+import ai.lingualeap.lingualeap.service.graph.LessonGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PrerequisiteRendererTest {
+
+    private static final int MAX_DEPTH = 5;
+
+    // 10 -> 1 -> {2, 3} -> 4 -> 2 (the last edge closes a cycle that rendering must not follow)
+    private static final Map<Long, long[]> GRAPH = Map.of(
+            1L, new long[]{2L, 3L},
+            2L, new long[]{4L},
+            3L, new long[]{4L},
+            4L, new long[]{2L}
+    );
+
+    @Mock
+    private LessonRepository lessonRepository;
+
+    @Mock
+    private LessonGraph lessonGraph;
+
+    private PrerequisiteRenderer renderer;
+    private Lesson lesson;
+    private LessonResponse response;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(lessonGraph.getPrerequisiteIds(anyLong()))
+                .thenAnswer(invocation -> GRAPH.getOrDefault((Long) invocation.getArgument(0), new long[0]));
+        lenient().when(lessonRepository.findSummariesByIds(anyCollection()))
+                .thenAnswer(invocation -> ((Collection<Long>) invocation.getArgument(0)).stream()
+                        .map(PrerequisiteRendererTest::summary)
+                        .toList());
+        renderer = new PrerequisiteRenderer(lessonRepository, lessonGraph, PrerequisiteView.IDS, MAX_DEPTH);
+
+        Lesson prerequisite = new Lesson();
+        prerequisite.setId(1L);
+        lesson = new Lesson();
+        lesson.setId(10L);
+        lesson.setPrerequisites(new HashSet<>(Set.of(prerequisite)));
+        response = new LessonResponse(10L, "Lesson 10", null, LessonType.THEORY, LessonLevel.BEGINNER,
+                LessonStatus.DRAFT, 1, null, null, null, false, null, null, List.of(), List.of(1L), null, Set.of(),
+                null, null);
+    }
+
+    @Test
+    void render_IdsViewSkipsSummaryQuery() {
+        LessonResponse result = renderer.render(response, lesson);
+
+        assertEquals(List.of(1L), result.prerequisiteIds());
+        assertNull(result.prerequisites());
+        verify(lessonRepository, never()).findSummariesByIds(any());
+    }
+
+    @Test
+    void render_SummaryViewStopsAtDirectPrerequisites() {
+        LessonResponse result = renderer.render(response, PrerequisiteView.SUMMARY, null);
+
+        assertEquals(1, result.prerequisites().size());
+        PrerequisiteResponse direct = result.prerequisites().get(0);
+        assertEquals(1L, direct.id());
+        assertNull(direct.prerequisites());
+    }
+
+    @Test
+    void render_TreeViewSharesNodesAndStopsAtCycle() {
+        LessonResponse result = renderer.render(response, PrerequisiteView.TREE, null);
+
+        PrerequisiteResponse first = result.prerequisites().get(0);
+        PrerequisiteResponse second = first.prerequisites().get(0);
+        PrerequisiteResponse third = first.prerequisites().get(1);
+        assertEquals(2L, second.id());
+        assertEquals(3L, third.id());
+        assertSame(second.prerequisites().get(0), third.prerequisites().get(0));
+
+        PrerequisiteResponse fourth = second.prerequisites().get(0);
+        assertEquals(4L, fourth.id());
+        assertEquals(2L, fourth.prerequisites().get(0).id());
+        assertNull(fourth.prerequisites().get(0).prerequisites());
+        verify(lessonRepository, times(1)).findSummariesByIds(any());
+    }
+
+    @Test
+    void render_TreeViewHonoursRequestedDepth() {
+        LessonResponse result = renderer.render(response, PrerequisiteView.TREE, 2);
+
+        PrerequisiteResponse second = result.prerequisites().get(0).prerequisites().get(0);
+        assertEquals(2L, second.id());
+        assertNull(second.prerequisites());
+    }
+
+    @Test
+    void render_TreeViewRejectsDepthAboveLimit() {
+        assertThrows(IllegalArgumentException.class, () ->
+                renderer.render(response, PrerequisiteView.TREE, MAX_DEPTH + 1)
+        );
+    }
+
+    private static LessonSummary summary(Long id) {
+        return new LessonSummary(id, "Lesson " + id, LessonType.THEORY, LessonLevel.BEGINNER, LessonStatus.DRAFT,
+                id.intValue(), null, null, false, 1L, null, null);
+    }
+}
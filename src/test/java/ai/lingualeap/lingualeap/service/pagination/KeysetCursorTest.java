@@ -0,0 +1,29 @@
+package ai.lingualeap.lingualeap.service.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void decode_RoundTripsEncodedPosition() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 17, 10, 15, 30, 123_456_000);
+
+        KeysetCursor.Position<LocalDateTime> position =
+                KeysetCursor.decode(KeysetCursor.encode(createdAt, 42L), LocalDateTime::parse);
+
+        assertEquals(createdAt, position.sortKey());
+        assertEquals(42L, position.id());
+    }
+
+    @Test
+    void decode_RejectsTamperedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not*base64", Integer::valueOf));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode(KeysetCursor.encode("abc", 1L), Integer::valueOf));
+    }
+}
@@ -0,0 +1,88 @@
+package ai.lingualeap.lingualeap.service.progress;
+
+import ai.lingualeap.lingualeap.dao.entity.UserProgress;
+import ai.lingualeap.lingualeap.dao.repository.UserProgressRepository;
+import ai.lingualeap.lingualeap.model.enums.CompletionStatus;
+import ai.lingualeap.lingualeap.service.event.UserProgressChangedEvent;
+import ai.lingualeap.lingualeap.service.graph.LessonGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompletionBitmapCacheTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private UserProgressRepository userProgressRepository;
+
+    @Mock
+    private LessonGraph lessonGraph;
+
+    private CompletionBitmapCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(lessonGraph.denseIndex(anyLong()))
+                .thenAnswer(invocation -> ((Long) invocation.getArgument(0)).intValue());
+        cache = new CompletionBitmapCache(userProgressRepository, lessonGraph, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void getCompletedLessons_LoadsOnceWithSingleQuery() {
+        when(userProgressRepository.findLessonIdsByUserIdAndStatus(USER_ID, CompletionStatus.COMPLETED))
+                .thenReturn(List.of(1L, 3L));
+
+        assertTrue(cache.isCompleted(USER_ID, 1L));
+        assertFalse(cache.isCompleted(USER_ID, 2L));
+        assertTrue(cache.isCompleted(USER_ID, 3L));
+
+        verify(userProgressRepository, times(1))
+                .findLessonIdsByUserIdAndStatus(USER_ID, CompletionStatus.COMPLETED);
+    }
+
+    @Test
+    void onProgressChanged_UpdatesLoadedBitmap() {
+        when(userProgressRepository.findLessonIdsByUserIdAndStatus(USER_ID, CompletionStatus.COMPLETED))
+                .thenReturn(List.of(1L));
+        cache.getCompletedLessons(USER_ID);
+
+        cache.onProgressChanged(new UserProgressChangedEvent(USER_ID, 2L, true));
+        cache.onProgressChanged(new UserProgressChangedEvent(USER_ID, 1L, false));
+
+        assertTrue(cache.isCompleted(USER_ID, 2L));
+        assertFalse(cache.isCompleted(USER_ID, 1L));
+    }
+
+    @Test
+    void isCompleted_UnknownLessonFallsBackToDatabase() {
+        UserProgress progress = new UserProgress();
+        progress.setStatus(CompletionStatus.COMPLETED);
+        when(lessonGraph.denseIndex(98L)).thenReturn(LessonGraph.UNKNOWN_LESSON);
+        when(lessonGraph.denseIndex(99L)).thenReturn(LessonGraph.UNKNOWN_LESSON);
+        when(userProgressRepository.findByUserIdAndLessonId(USER_ID, 98L)).thenReturn(Optional.of(progress));
+        when(userProgressRepository.findByUserIdAndLessonId(USER_ID, 99L)).thenReturn(Optional.empty());
+
+        assertTrue(cache.isCompleted(USER_ID, 98L));
+        assertFalse(cache.isCompleted(USER_ID, 99L));
+
+        verify(userProgressRepository, never()).findLessonIdsByUserIdAndStatus(anyLong(), any());
+    }
+}
@@ -0,0 +1,84 @@
+package ai.lingualeap.lingualeap.service.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OptimisticLockRetryTest {
+
+    private static final String OPERATION = "lesson.update";
+
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticLockRetry retry;
+    private AtomicInteger attempts;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        retry = new OptimisticLockRetry(new TransactionTemplate(transactionManager), meterRegistry, 3,
+                Duration.ofMillis(1), Duration.ofMillis(2));
+        attempts = new AtomicInteger();
+    }
+
+    @Test
+    void execute_RetriesConflictInFreshTransaction() {
+        String result = retry.execute(OPERATION, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Lesson", 1L);
+            }
+            return "saved";
+        });
+
+        assertEquals("saved", result);
+        verify(transactionManager, times(3)).getTransaction(any());
+        assertEquals(2.0, count("optimistic.lock.conflicts"));
+        assertEquals(2.0, count("optimistic.lock.retries"));
+    }
+
+    @Test
+    void execute_RethrowsConflictWhenAttemptsRunOut() {
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                retry.execute(OPERATION, () -> {
+                    attempts.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException("Lesson", 1L);
+                })
+        );
+
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, count("optimistic.lock.exhausted"));
+    }
+
+    @Test
+    void execute_DoesNotRetryOtherFailures() {
+        assertThrows(IllegalArgumentException.class, () ->
+                retry.execute(OPERATION, () -> {
+                    attempts.incrementAndGet();
+                    throw new IllegalArgumentException("invalid");
+                })
+        );
+
+        assertEquals(1, attempts.get());
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).tag("operation", OPERATION).counter().count();
+    }
+}